@@ -160,6 +160,16 @@ public class BadCueSheetException extends EDENRuntimeException {
     super(subject, problem, remedy);
   }
 
+  /** Makes an instance with the given subject, problem, remedy, and cause. */
+  protected BadCueSheetException(
+    String subject,
+    String problem,
+    String remedy,
+    Exception cause
+  ) {
+    super(subject, problem, remedy, cause);
+  }
+
   /** To prevent null instantiations of this class. */
   protected BadCueSheetException() {}
 }
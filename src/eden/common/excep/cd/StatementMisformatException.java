@@ -0,0 +1,29 @@
+package eden.common.excep.cd;
+
+/**
+ * Thrown when the arguments of a statement are malformed.
+ *
+ * @author Brendon
+ */
+public class StatementMisformatException extends BadCueSheetException {
+
+  /** Problem description. */
+  protected static final String PROBLEM =
+    "The statement has malformed arguments.";
+  /** Suggested remedy. */
+  protected static final String REMEDY =
+    "Consult the website for command arguments.";
+
+  /** Makes an instance with the given line number. */
+  public StatementMisformatException(long line) {
+    super(makeSubject(line), PROBLEM, REMEDY);
+  }
+
+  /** Makes an instance with the given line number and cause. */
+  public StatementMisformatException(long line, Exception cause) {
+    super(makeSubject(line), PROBLEM, REMEDY, cause);
+  }
+
+  /** To prevent null instantiations of this class. */
+  protected StatementMisformatException() {}
+}
@@ -6,12 +6,15 @@ import static eden.common.shared.Constants.STRING_CAPACITY;
 
 import eden.common.model.plaintext.LineEnding;
 import eden.common.object.Nullifiable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Defines a Compact Disc (CD) layout object in terms of a cuesheet.
@@ -68,13 +71,22 @@ public abstract class CDLayoutObject implements Nullifiable {
   protected static final String INDENT_POSTGAP = INDENT_2 + POSTGAP;
   /** Indented SONGWRITER cuesheet command. */
   protected static final String INDENT_SONGWRITER = INDENT_2 + SONGWRITER;
-  /** Custom statements. */
-  protected Map<String, String> custom = new HashMap<>();
-  /** REM arguments. */
-  protected Deque<String> remarks = new LinkedList<>();
+  /** Number of slots of a number table, one per number from 0 to 99. */
+  protected static final int SLOTS = 100;
+  /** Custom statements of nullified instances. */
+  protected static final Map<String, String> NUL_CUSTOM =
+    Collections.unmodifiableMap(new HashMap<>(0));
+
+  /** Custom statements, null until one is set. */
+  protected Map<String, String> custom;
+  /** REM arguments, null until one is added. */
+  protected Deque<String> remarks;
 
   /** Applies the given BiFunction to its custom statements. */
   public void forEachCustom(BiFunction<String, String, String> function) {
+    if (this.custom == null) {
+      return;
+    }
     this.custom.forEach((key, value) -> {
         String newValue = function.apply(key, value);
         if (newValue == null ? value != null : !newValue.equals(value)) {
@@ -83,14 +95,20 @@ public abstract class CDLayoutObject implements Nullifiable {
       });
   }
 
-  /** Returns its list of REM arguments. */
+  /**
+   * Returns its list of REM arguments, making it if it has never had any.
+   * Callers that only read should check {@link #hasRems()} first.
+   */
   public Deque<String> getRems() {
+    if (this.remarks == null && !isObjectNullified()) {
+      this.remarks = new LinkedList<>();
+    }
     return this.remarks;
   }
 
   /** Returns its last REM argument. */
   public String getLastRem() {
-    return getRems().peekLast();
+    return hasRems() ? this.remarks.peekLast() : null;
   }
 
   /** Adds the given REM argument. */
@@ -100,37 +118,42 @@ public abstract class CDLayoutObject implements Nullifiable {
 
   /** Removes then returns its last REM argument. */
   public String removeLastRem() {
-    return getRems().pollLast();
+    return hasRems() ? this.remarks.pollLast() : null;
   }
 
   /** Returns the argument of the given command of a custom statement. */
   public String getCustom(String command) {
-    return this.custom.get(command);
+    return getCustoms().get(command);
   }
 
   /** Sets the given custom statement. */
   public void setCustom(String command, String argument) {
+    if (this.custom == null) {
+      this.custom = newCustoms();
+    }
     this.custom.put(command, argument);
   }
 
   /** Removes the given custom statement. */
   public void unsetCustom(String command) {
-    this.custom.remove(command);
+    if (this.custom != null) {
+      this.custom.remove(command);
+    }
   }
 
   /** Returns whether it has the given custom statement. */
   public boolean hasCustom(String command) {
-    return this.custom.containsKey(command);
+    return getCustoms().containsKey(command);
   }
 
   /** Returns whether it has custom statements. */
   public boolean hasCustoms() {
-    return !this.custom.isEmpty();
+    return !getCustoms().isEmpty();
   }
 
   /** Returns whether it has REM arguments. */
   public boolean hasRems() {
-    return !getRems().isEmpty();
+    return this.remarks != null && !this.remarks.isEmpty();
   }
 
   /**
@@ -146,16 +169,20 @@ public abstract class CDLayoutObject implements Nullifiable {
     if (isObjectNullified()) {
       return;
     }
-    this.custom.clear();
-    this.remarks.clear();
-    this.custom = null;
+    if (this.custom != null) {
+      this.custom.clear();
+    }
+    if (this.remarks != null) {
+      this.remarks.clear();
+    }
+    this.custom = NUL_CUSTOM;
     this.remarks = null;
   }
 
   /** {@inheritDoc} */
   @Override
   public boolean isObjectNullified() {
-    return this.custom == null;
+    return this.custom == NUL_CUSTOM;
   }
 
   /** {@inheritDoc} */
@@ -188,4 +215,120 @@ public abstract class CDLayoutObject implements Nullifiable {
     }
     return out.toString();
   }
+
+  /**
+   * Makes a number table of the given list. Each slot holds one more than the
+   * position of the first element with its number, 0 for none.
+   */
+  protected static <E> byte[] newSlots(
+    List<E> list,
+    ToIntFunction<E> numberOf
+  ) {
+    byte[] out = new byte[SLOTS];
+    for (int i = list.size() - 1; i >= 0; i--) {
+      setSlot(out, numberOf.applyAsInt(list.get(i)), i);
+    }
+    return out;
+  }
+
+  /**
+   * Sets the slot of the given number in the given number table to the given
+   * position, if both fit.
+   */
+  protected static void setSlot(byte[] slots, int number, int position) {
+    if (number >= 0 && number < SLOTS) {
+      slots[number] = position < 0xFF ? (byte) (position + 1) : 0;
+    }
+  }
+
+  /**
+   * Updates the given number table for the element added at the given
+   * position of the given list, unless an earlier element has its number.
+   */
+  protected static <E> void addSlot(
+    List<E> list,
+    byte[] slots,
+    ToIntFunction<E> numberOf,
+    int position
+  ) {
+    int number = numberOf.applyAsInt(list.get(position));
+    if (number < 0 || number >= SLOTS) {
+      return;
+    }
+    int slot = (slots[number] & 0xFF) - 1;
+    if (
+      slot < 0 ||
+      slot >= position ||
+      numberOf.applyAsInt(list.get(slot)) != number
+    ) {
+      setSlot(slots, number, position);
+    }
+  }
+
+  /**
+   * Updates the given number table for the element of the given number
+   * removed from the given position.
+   */
+  protected static void removeSlot(byte[] slots, int number, int position) {
+    if (
+      number >= 0 &&
+      number < SLOTS &&
+      (slots[number] & 0xFF) == position + 1
+    ) {
+      slots[number] = 0;
+    }
+  }
+
+  /**
+   * Returns the first element of the given list with the given number, null
+   * if none. Its slot in the given number table is tried first, then verified
+   * against the list, so that changes made to the list directly are scanned
+   * for and repaired.
+   */
+  protected static <E> E findByNumber(
+    List<E> list,
+    byte[] slots,
+    ToIntFunction<E> numberOf,
+    int number
+  ) {
+    if (number >= 0 && number < SLOTS) {
+      int position = (slots[number] & 0xFF) - 1;
+      if (position >= 0 && position < list.size()) {
+        E out = list.get(position);
+        if (numberOf.applyAsInt(out) == number) {
+          return out;
+        }
+      }
+    }
+    for (int i = 0; i < list.size(); i++) {
+      E out = list.get(i);
+      if (numberOf.applyAsInt(out) == number) {
+        setSlot(slots, number, i);
+        return out;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns its custom statements for reading, an unmodifiable empty map if it
+   * has never had any. Changes go through {@link #setCustom(String, String)}
+   * and {@link #unsetCustom(String)}.
+   */
+  protected Map<String, String> getCustoms() {
+    return this.custom != null ? this.custom : Collections.emptyMap();
+  }
+
+  /**
+   * Returns its REM arguments for reading, an unmodifiable empty list if it
+   * has never had any.
+   */
+  protected Collection<String> getRemsView() {
+    return this.remarks != null ? this.remarks : Collections.emptyList();
+  }
+
+  /** Makes the map for its custom statements when the first one is set. */
+  protected Map<String, String> newCustoms() {
+    return new HashMap<>();
+  }
 }
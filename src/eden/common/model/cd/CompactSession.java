@@ -0,0 +1,540 @@
+package eden.common.model.cd;
+
+import static eden.common.shared.Constants.NUL_INT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Defines a Compact Disc (CD) session layout in primitive columns, for keeping
+ * many sessions resident. Its strings are kept once each in its string table,
+ * and its fields refer to them by index, -1 for null. Converting a session to
+ * and from an instance keeps it equal, and writing either gives the same
+ * text, including its REM, custom, and FLAGS statements.
+ *
+ * Its layout objects are numbered in document order: the session is 0, and
+ * each track is followed by its indexes.
+ *
+ * Immutable.
+ *
+ * @author Brendon
+ * @see eden.common.model.cd.Session
+ */
+public class CompactSession {
+
+  /** Number of string fields of a session. */
+  protected static final int SESSION_STRINGS = 5;
+  /** Number of string fields of a track. */
+  protected static final int TRACK_STRINGS = 5;
+  /** Number of string fields of an index. */
+  protected static final int INDEX_STRINGS = 2;
+  /** Estimated size of an object header and its padding, in bytes. */
+  protected static final int HEADER_WEIGHT = 16;
+  /** Estimated size of a string besides its characters, in bytes. */
+  protected static final int STRING_WEIGHT = 40;
+
+  /** String table. */
+  protected final String[] strings;
+  /** CATALOG, CDTEXTFILE, PERFORMER, SONGWRITER, and TITLE arguments. */
+  protected final int[] sessionStrings;
+  /** Track numbers. */
+  protected final int[] trackNumbers;
+  /** Track pregaps. */
+  protected final int[] pregaps;
+  /** Track postgaps. */
+  protected final int[] postgaps;
+  /** ISRC, PERFORMER, SONGWRITER, TITLE, and type arguments of tracks. */
+  protected final int[] trackStrings;
+  /** Masks of the defined flags of tracks. */
+  protected final byte[] flagMasks;
+  /**
+   * Position of the first listed flag of each track, then the number of
+   * listed flags. Only tracks whose flag masks do not restore their flags
+   * list them.
+   */
+  protected final int[] flagStarts;
+  /** Listed flags, in order. */
+  protected final int[] flags;
+  /** Position of the first index of each track, then the number of indexes. */
+  protected final int[] indexStarts;
+  /** Index numbers. */
+  protected final int[] indexNumbers;
+  /** Index frames. */
+  protected final int[] frames;
+  /** File paths and types of indexes. */
+  protected final int[] indexStrings;
+  /**
+   * Position of the first REM argument of each layout object, then the number
+   * of REM arguments.
+   */
+  protected final int[] remStarts;
+  /** REM arguments, in order. */
+  protected final int[] rems;
+  /**
+   * Position of the first custom statement of each layout object, then the
+   * number of custom statements.
+   */
+  protected final int[] customStarts;
+  /** Commands of custom statements. */
+  protected final int[] customCommands;
+  /** Arguments of custom statements. */
+  protected final int[] customArguments;
+
+  /** Makes an instance with the contents of the given session. */
+  public CompactSession(Session session) {
+    Map<String, Integer> table = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    List<Track> tracks = session.getTracks();
+    int trackCount = tracks.size();
+    int flagCount = 0;
+    int indexCount = 0;
+    for (Track track : tracks) {
+      if (!track.isFlagMaskWhole()) {
+        flagCount += track.getFlags().size();
+      }
+      indexCount += track.getIndexes().size();
+    }
+    this.sessionStrings = new int[] {
+      index(session.getCatalog(), table, strings),
+      index(session.getCdTextFile(), table, strings),
+      index(session.getPerformer(), table, strings),
+      index(session.getSongwriter(), table, strings),
+      index(session.getTitle(), table, strings),
+    };
+    this.trackNumbers = new int[trackCount];
+    this.pregaps = new int[trackCount];
+    this.postgaps = new int[trackCount];
+    this.trackStrings = new int[trackCount * TRACK_STRINGS];
+    this.flagMasks = new byte[trackCount];
+    this.flagStarts = new int[trackCount + 1];
+    this.flags = new int[flagCount];
+    this.indexStarts = new int[trackCount + 1];
+    this.indexNumbers = new int[indexCount];
+    this.frames = new int[indexCount];
+    this.indexStrings = new int[indexCount * INDEX_STRINGS];
+    this.remStarts = new int[2 + trackCount + indexCount];
+    this.customStarts = new int[this.remStarts.length];
+    List<Integer> rems = new ArrayList<>();
+    List<Integer> customCommands = new ArrayList<>();
+    List<Integer> customArguments = new ArrayList<>();
+    int owner = 0;
+    addLayout(
+      owner++,
+      session,
+      table,
+      strings,
+      rems,
+      customCommands,
+      customArguments
+    );
+    int flag = 0;
+    int position = 0;
+    for (int i = 0; i < trackCount; i++) {
+      Track track = tracks.get(i);
+      this.trackNumbers[i] = track.getNumber();
+      this.pregaps[i] = track.getPregap();
+      this.postgaps[i] = track.getPostgap();
+      int offset = i * TRACK_STRINGS;
+      this.trackStrings[offset] = index(track.getIsrc(), table, strings);
+      this.trackStrings[offset + 1] = index(
+        track.getPerformer(),
+        table,
+        strings
+      );
+      this.trackStrings[offset + 2] = index(
+        track.getSongwriter(),
+        table,
+        strings
+      );
+      this.trackStrings[offset + 3] = index(track.getTitle(), table, strings);
+      this.trackStrings[offset + 4] = index(track.getType(), table, strings);
+      this.flagMasks[i] = (byte) track.getFlagMask();
+      this.flagStarts[i] = flag;
+      if (!track.isFlagMaskWhole()) {
+        for (String flagg : track.getFlags()) {
+          this.flags[flag++] = index(flagg, table, strings);
+        }
+      }
+      addLayout(
+        owner++,
+        track,
+        table,
+        strings,
+        rems,
+        customCommands,
+        customArguments
+      );
+      this.indexStarts[i] = position;
+      for (Index index : track.getIndexes()) {
+        this.indexNumbers[position] = index.getNumber();
+        this.frames[position] = index.getFrame();
+        this.indexStrings[position * INDEX_STRINGS] =
+          index(index.getFilePath(), table, strings);
+        this.indexStrings[position * INDEX_STRINGS + 1] =
+          index(index.getFileType(), table, strings);
+        addLayout(
+          owner++,
+          index,
+          table,
+          strings,
+          rems,
+          customCommands,
+          customArguments
+        );
+        position++;
+      }
+    }
+    this.flagStarts[trackCount] = flag;
+    this.indexStarts[trackCount] = position;
+    this.remStarts[owner] = rems.size();
+    this.customStarts[owner] = customCommands.size();
+    this.strings = strings.toArray(new String[strings.size()]);
+    this.rems = toArray(rems);
+    this.customCommands = toArray(customCommands);
+    this.customArguments = toArray(customArguments);
+  }
+
+  /** Returns a new session with its contents. */
+  public Session toSession() {
+    int trackCount = getTrackCount();
+    Session out = new Session(
+      trackCount,
+      getString(this.sessionStrings[0]),
+      getString(this.sessionStrings[1]),
+      getString(this.sessionStrings[2]),
+      getString(this.sessionStrings[3]),
+      getString(this.sessionStrings[4])
+    );
+    int owner = 0;
+    setLayout(owner++, out);
+    for (int i = 0; i < trackCount; i++) {
+      List<String> flagss = null;
+      if (getFlagCount(i) > 0) {
+        flagss = new ArrayList<>(getFlagCount(i));
+        for (int j = 0; j < getFlagCount(i); j++) {
+          flagss.add(getFlag(i, j));
+        }
+      }
+      Track track = new Track(
+        this.trackNumbers[i],
+        getIndexCount(i),
+        this.postgaps[i],
+        this.pregaps[i],
+        flagss,
+        getTrackString(i, 0),
+        getTrackString(i, 1),
+        getTrackString(i, 2),
+        getTrackString(i, 3),
+        getTrackString(i, 4)
+      );
+      setLayout(owner++, track);
+      for (int j = this.indexStarts[i]; j < this.indexStarts[i + 1]; j++) {
+        Index index = new Index(
+          this.indexNumbers[j],
+          this.frames[j],
+          getString(this.indexStrings[j * INDEX_STRINGS]),
+          getString(this.indexStrings[j * INDEX_STRINGS + 1])
+        );
+        setLayout(owner++, index);
+        track.addIndex(index);
+      }
+      out.addTrack(track);
+    }
+    return out;
+  }
+
+  /**
+   * Returns its estimated retained size in bytes: its columns, and its
+   * strings at two bytes per character.
+   */
+  public long getWeight() {
+    long out = HEADER_WEIGHT * 2L + this.strings.length * 4L;
+    for (String string : this.strings) {
+      out += STRING_WEIGHT + string.length() * 2L;
+    }
+    out += HEADER_WEIGHT + this.flagMasks.length;
+    for (int[] column : new int[][] {
+      this.sessionStrings,
+      this.trackNumbers,
+      this.pregaps,
+      this.postgaps,
+      this.trackStrings,
+      this.flagStarts,
+      this.flags,
+      this.indexStarts,
+      this.indexNumbers,
+      this.frames,
+      this.indexStrings,
+      this.remStarts,
+      this.rems,
+      this.customStarts,
+      this.customCommands,
+      this.customArguments,
+    }) {
+      out += HEADER_WEIGHT + column.length * 4L;
+    }
+    return out;
+  }
+
+  /** Returns its CATALOG argument. */
+  public String getCatalog() {
+    return getString(this.sessionStrings[0]);
+  }
+
+  /** Returns its CDTEXTFILE argument. */
+  public String getCdTextFile() {
+    return getString(this.sessionStrings[1]);
+  }
+
+  /** Returns its PERFORMER argument. */
+  public String getPerformer() {
+    return getString(this.sessionStrings[2]);
+  }
+
+  /** Returns its SONGWRITER argument. */
+  public String getSongwriter() {
+    return getString(this.sessionStrings[3]);
+  }
+
+  /** Returns its TITLE argument. */
+  public String getTitle() {
+    return getString(this.sessionStrings[4]);
+  }
+
+  /** Returns its number of tracks. */
+  public int getTrackCount() {
+    return this.trackNumbers.length;
+  }
+
+  /** Returns the number of its track at the given index. */
+  public int getTrackNumber(int track) {
+    return this.trackNumbers[track];
+  }
+
+  /** Returns the pregap of its track at the given index. */
+  public int getPregap(int track) {
+    return this.pregaps[track];
+  }
+
+  /** Returns the postgap of its track at the given index. */
+  public int getPostgap(int track) {
+    return this.postgaps[track];
+  }
+
+  /** Returns the ISRC argument of its track at the given index. */
+  public String getIsrc(int track) {
+    return getTrackString(track, 0);
+  }
+
+  /** Returns the PERFORMER argument of its track at the given index. */
+  public String getPerformer(int track) {
+    return getTrackString(track, 1);
+  }
+
+  /** Returns the SONGWRITER argument of its track at the given index. */
+  public String getSongwriter(int track) {
+    return getTrackString(track, 2);
+  }
+
+  /** Returns the TITLE argument of its track at the given index. */
+  public String getTitle(int track) {
+    return getTrackString(track, 3);
+  }
+
+  /** Returns the type of its track at the given index. */
+  public String getType(int track) {
+    return getTrackString(track, 4);
+  }
+
+  /** Returns the mask of the defined flags of its track at the given index. */
+  public int getFlagMask(int track) {
+    return this.flagMasks[track];
+  }
+
+  /** Returns the number of flags of its track at the given index. */
+  public int getFlagCount(int track) {
+    int out = this.flagStarts[track + 1] - this.flagStarts[track];
+    return out > 0 ? out : Integer.bitCount(this.flagMasks[track]);
+  }
+
+  /** Returns the flag at the given indexes. */
+  public String getFlag(int track, int flag) {
+    if (this.flagStarts[track + 1] > this.flagStarts[track]) {
+      return getString(this.flags[this.flagStarts[track] + flag]);
+    }
+    return TrackFlag.fromMask(this.flagMasks[track])[flag].toString();
+  }
+
+  /** Returns the number of indexes of its track at the given index. */
+  public int getIndexCount(int track) {
+    return this.indexStarts[track + 1] - this.indexStarts[track];
+  }
+
+  /** Returns the number of the index at the given indexes. */
+  public int getIndexNumber(int track, int index) {
+    return this.indexNumbers[this.indexStarts[track] + index];
+  }
+
+  /** Returns the frame of the index at the given indexes. */
+  public int getFrame(int track, int index) {
+    return this.frames[this.indexStarts[track] + index];
+  }
+
+  /** Returns the file path of the index at the given indexes. */
+  public String getFilePath(int track, int index) {
+    return getString(
+      this.indexStrings[(this.indexStarts[track] + index) * INDEX_STRINGS]
+    );
+  }
+
+  /** Returns the file type of the index at the given indexes. */
+  public String getFileType(int track, int index) {
+    return getString(
+      this.indexStrings[(this.indexStarts[track] + index) * INDEX_STRINGS + 1]
+    );
+  }
+
+  /** Returns whether its track at the given index has a pregap. */
+  public boolean hasPregap(int track) {
+    return getPregap(track) != NUL_INT;
+  }
+
+  /** Returns whether its track at the given index has a postgap. */
+  public boolean hasPostgap(int track) {
+    return getPostgap(track) != NUL_INT;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(Object object) {
+    return (
+      object == this ||
+      (
+        object != null &&
+        object.getClass() == getClass() &&
+        equals((CompactSession) object)
+      )
+    );
+  }
+
+  /** Returns whether the given instance is equal to it. */
+  protected boolean equals(CompactSession instance) {
+    return instance.hashCode() == hashCode();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      Arrays.hashCode(this.strings),
+      Arrays.hashCode(this.sessionStrings),
+      Arrays.hashCode(this.trackNumbers),
+      Arrays.hashCode(this.pregaps),
+      Arrays.hashCode(this.postgaps),
+      Arrays.hashCode(this.trackStrings),
+      Arrays.hashCode(this.flagMasks),
+      Arrays.hashCode(this.flags),
+      Arrays.hashCode(this.flagStarts),
+      Arrays.hashCode(this.indexNumbers),
+      Arrays.hashCode(this.frames),
+      Arrays.hashCode(this.indexStarts),
+      Arrays.hashCode(this.indexStrings),
+      Arrays.hashCode(this.rems),
+      Arrays.hashCode(this.remStarts),
+      Arrays.hashCode(this.customArguments),
+      Arrays.hashCode(this.customCommands),
+      Arrays.hashCode(this.customStarts)
+    );
+  }
+
+  /** Returns the string at the given index of its table, null if -1. */
+  protected String getString(int index) {
+    return index >= 0 ? this.strings[index] : null;
+  }
+
+  /** Returns the string field at the given index of the given track. */
+  protected String getTrackString(int track, int field) {
+    return getString(this.trackStrings[track * TRACK_STRINGS + field]);
+  }
+
+  /**
+   * Adds the REM and custom statements of its given layout object to the
+   * given one, in order.
+   */
+  protected void setLayout(int owner, CDLayoutObject object) {
+    for (int i = this.remStarts[owner]; i < this.remStarts[owner + 1]; i++) {
+      object.addRem(getString(this.rems[i]));
+    }
+    for (
+      int i = this.customStarts[owner];
+      i < this.customStarts[owner + 1];
+      i++
+    ) {
+      object.setCustom(
+        getString(this.customCommands[i]),
+        getString(this.customArguments[i])
+      );
+    }
+  }
+
+  /**
+   * Adds the REM and custom statements of the given layout object, numbered
+   * as the given owner, to the given columns.
+   */
+  protected void addLayout(
+    int owner,
+    CDLayoutObject object,
+    Map<String, Integer> table,
+    List<String> strings,
+    List<Integer> rems,
+    List<Integer> customCommands,
+    List<Integer> customArguments
+  ) {
+    this.remStarts[owner] = rems.size();
+    this.customStarts[owner] = customCommands.size();
+    if (object.hasRems()) {
+      for (String rem : object.getRems()) {
+        rems.add(index(rem, table, strings));
+      }
+    }
+    object.forEachCustom((command, argument) -> {
+      customCommands.add(index(command, table, strings));
+      customArguments.add(index(argument, table, strings));
+      return argument;
+    });
+  }
+
+  /**
+   * Returns the index of the given string in the given table, adding it if
+   * new, -1 if null.
+   */
+  protected static int index(
+    String string,
+    Map<String, Integer> table,
+    List<String> strings
+  ) {
+    if (string == null) {
+      return -1;
+    }
+    Integer out = table.get(string);
+    if (out == null) {
+      out = strings.size();
+      table.put(string, out);
+      strings.add(string);
+    }
+    return out;
+  }
+
+  /** Returns the given list as an array. */
+  protected static int[] toArray(List<Integer> list) {
+    int[] out = new int[list.size()];
+    for (int i = 0; i < out.length; i++) {
+      out[i] = list.get(i);
+    }
+    return out;
+  }
+}
@@ -0,0 +1,117 @@
+package eden.common.model.cd;
+
+/**
+ * Defines the cuesheet commands. Unrecognized commands are {@link #CUSTOM}.
+ *
+ * Tokens are classified through a perfect hash over their length and their
+ * first two characters, folded to the upper case, followed by a single
+ * case-insensitive comparison against the only candidate.
+ *
+ * @author Brendon
+ * @see eden.common.model.cd.CDLayoutObject
+ */
+public enum CueSheetCommand {
+  CATALOG(CDLayoutObject.CATALOG),
+  CDTEXTFILE(CDLayoutObject.CDTEXTFILE),
+  FILE(CDLayoutObject.FILE),
+  FLAGS(CDLayoutObject.FLAGS),
+  INDEX(CDLayoutObject.INDEX),
+  ISRC(CDLayoutObject.ISRC),
+  PERFORMER(CDLayoutObject.PERFORMER),
+  POSTGAP(CDLayoutObject.POSTGAP),
+  PREGAP(CDLayoutObject.PREGAP),
+  REM(CDLayoutObject.REM),
+  SONGWRITER(CDLayoutObject.SONGWRITER),
+  TITLE(CDLayoutObject.TITLE),
+  TRACK(CDLayoutObject.TRACK),
+  CUSTOM(null);
+
+  /** Mask of the perfect hash. */
+  private static final int MASK = 31;
+  /** Commands by their perfect hash. */
+  private static final CueSheetCommand[] TABLE = new CueSheetCommand[MASK + 1];
+  /** Length of the shortest command. */
+  private static final int MIN_LENGTH;
+  /** Length of the longest command. */
+  private static final int MAX_LENGTH;
+
+  static {
+    int min = Integer.MAX_VALUE, max = 0, hash;
+    for (CueSheetCommand command : values()) {
+      if (command.keyword == null) {
+        continue;
+      }
+      hash = hash(command.keyword);
+      if (TABLE[hash] != null) {
+        throw new IllegalStateException(command.keyword);
+      }
+      TABLE[hash] = command;
+      min = Math.min(min, command.keyword.length());
+      max = Math.max(max, command.keyword.length());
+    }
+    MIN_LENGTH = min;
+    MAX_LENGTH = max;
+  }
+
+  /**
+   * Returns the command of the given token, compared case-insensitively as
+   * {@code String.equalsIgnoreCase} does. Returns {@link #CUSTOM} if the token
+   * is not a command.
+   */
+  public static CueSheetCommand classify(CharSequence token) {
+    int length = token.length();
+    if (length < MIN_LENGTH || length > MAX_LENGTH) {
+      return CUSTOM;
+    }
+    CueSheetCommand out = TABLE[hash(token)];
+    if (out == null || out.keyword.length() != length) {
+      return CUSTOM;
+    }
+    for (int i = 0; i < length; i++) {
+      if (fold(token.charAt(i)) != out.keyword.charAt(i)) {
+        return CUSTOM;
+      }
+    }
+    return out;
+  }
+
+  /** Returns the perfect hash of the given token of at least two characters. */
+  private static int hash(CharSequence token) {
+    return (
+      ((fold(token.charAt(0)) << 2) ^ fold(token.charAt(1)) ^ token.length()) &
+      MASK
+    );
+  }
+
+  /**
+   * Folds the given character to the upper case, such that it equals an
+   * upper-case ASCII letter if and only if {@code String.equalsIgnoreCase}
+   * considers them equal.
+   */
+  private static char fold(char character) {
+    if (character < 128) {
+      return character >= 'a' && character <= 'z'
+        ? (char) (character - ('a' - 'A'))
+        : character;
+    }
+    char upper = Character.toUpperCase(character);
+    if (upper < 128) {
+      return upper;
+    }
+    char lower = Character.toLowerCase(upper);
+    return lower < 128 ? Character.toUpperCase(lower) : upper;
+  }
+
+  /** Command keyword. */
+  private final String keyword;
+
+  /** Makes an instance with the given keyword. */
+  private CueSheetCommand(String keyword) {
+    this.keyword = keyword;
+  }
+
+  /** Returns its keyword, or null if it is {@link #CUSTOM}. */
+  public String getKeyword() {
+    return this.keyword;
+  }
+}
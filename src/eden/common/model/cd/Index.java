@@ -151,7 +151,8 @@ public class Index extends CDLayoutObject {
         CDDAFrame.toTimeCode(getFrame())
       )
     );
-    getRems().forEach(rem -> out.add(new CueSheetStatement(INDENT_2_REM, rem)));
+    getRemsView()
+      .forEach(rem -> out.add(new CueSheetStatement(INDENT_2_REM, rem)));
     forEachCustom((command, argument) -> {
       out.add(new CueSheetStatement(command, argument));
       return argument;
@@ -194,12 +195,12 @@ public class Index extends CDLayoutObject {
   @Override
   public int hashCode() {
     return Objects.hash(
-      this.custom,
+      getCustoms(),
       this.filePath,
       this.fileType,
       this.frame,
       this.number,
-      this.remarks
+      getRemsView()
     );
   }
 }
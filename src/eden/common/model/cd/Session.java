@@ -26,6 +26,8 @@ public class Session extends CDLayoutObject implements CDTextable {
   protected String songwriter;
   /** Title. */
   protected String title;
+  /** Track number table, null until the first lookup. */
+  protected byte[] trackSlots;
 
   /** Makes an instance with one track. */
   public Session() {
@@ -77,14 +79,44 @@ public class Session extends CDLayoutObject implements CDTextable {
     return last != null ? last.getLastIndex() : null;
   }
 
+  /**
+   * Returns its first track with the given number, in constant time if it has
+   * one, null if none. If its tracks are changed other than through
+   * {@link #addTrack(Track)} and {@link #removeLastTrack()}, this falls back
+   * to a scan, and may return a later track with the number.
+   */
+  public Track getTrackByNumber(int number) {
+    if (this.trackSlots == null) {
+      this.trackSlots = newSlots(getTracks(), Track::getNumber);
+    }
+    return findByNumber(getTracks(), this.trackSlots, Track::getNumber, number);
+  }
+
   /** Adds the given track. */
   public boolean addTrack(Track track) {
-    return getTracks().add(track);
+    getTracks().add(track);
+    if (this.trackSlots != null) {
+      addSlot(
+        getTracks(),
+        this.trackSlots,
+        Track::getNumber,
+        getTracks().size() - 1
+      );
+    }
+    return true;
   }
 
   /** Removes then returns its last track. */
   public Track removeLastTrack() {
-    return hasTracks() ? getTracks().remove(getTracks().size() - 1) : null;
+    if (!hasTracks()) {
+      return null;
+    }
+    int position = getTracks().size() - 1;
+    Track out = getTracks().remove(position);
+    if (this.trackSlots != null) {
+      removeSlot(this.trackSlots, out.getNumber(), position);
+    }
+    return out;
   }
 
   /** Returns its CATALOG argument. */
@@ -223,7 +255,7 @@ public class Session extends CDLayoutObject implements CDTextable {
   @Override
   public List<CueSheetStatement> toStatements() {
     List<CueSheetStatement> out = new LinkedList<>();
-    getRems().forEach(rem -> out.add(new CueSheetStatement(REM, rem)));
+    getRemsView().forEach(rem -> out.add(new CueSheetStatement(REM, rem)));
     if (hasCatalog()) {
       out.add(new CueSheetStatement(CATALOG, getCatalog()));
     }
@@ -267,6 +299,7 @@ public class Session extends CDLayoutObject implements CDTextable {
     }
     this.tracks.clear();
     this.tracks = null;
+    this.trackSlots = null;
     super.nullifyObject();
   }
 
@@ -291,6 +324,6 @@ public class Session extends CDLayoutObject implements CDTextable {
   /** {@inheritDoc} */
   @Override
   public int hashCode() {
-    return Objects.hash(this.custom, this.remarks, this.tracks);
+    return Objects.hash(getCustoms(), getRemsView(), this.tracks);
   }
 }
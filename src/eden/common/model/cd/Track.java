@@ -5,11 +5,16 @@ import static eden.common.shared.Constants.NUL_INT;
 import eden.common.util.CDDAFrame;
 import eden.common.util.CueSheets;
 import eden.common.util.Numbers;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Defines a Compact Disc (CD) track in terms of a cuesheet.
@@ -34,7 +39,7 @@ public class Track extends CDLayoutObject implements CDTextable {
 
   /** Indexes. */
   protected List<Index> indexes;
-  /** Flags. */
+  /** Flags in order, null until one is added. */
   protected List<String> flags;
   /** International Standard Recording Code (ISRC). */
   protected String isrc;
@@ -44,14 +49,20 @@ public class Track extends CDLayoutObject implements CDTextable {
   protected String songwriter;
   /** Title. */
   protected String title;
-  /** Type. */
+  /** Type, if not defined by {@link TrackType}. */
   protected String type;
+  /** Type, if defined. */
+  protected TrackType trackType;
   /** Number. */
   protected int number;
   /** Postgap. */
   protected int postgap = NUL_INT;
   /** Pregap. */
   protected int pregap = NUL_INT;
+  /** Index number table, null until the first lookup. */
+  protected byte[] indexSlots;
+  /** Mask of the defined flags among its flags. */
+  protected byte flagMask;
 
   /** Makes an instance with the given track number. */
   public Track(int number) {
@@ -60,7 +71,7 @@ public class Track extends CDLayoutObject implements CDTextable {
       1,
       NUL_INT,
       NUL_INT,
-      new LinkedList<>(),
+      null,
       null,
       null,
       null,
@@ -76,7 +87,7 @@ public class Track extends CDLayoutObject implements CDTextable {
       1,
       NUL_INT,
       NUL_INT,
-      new LinkedList<>(),
+      null,
       null,
       null,
       null,
@@ -100,14 +111,15 @@ public class Track extends CDLayoutObject implements CDTextable {
   ) {
     super();
     Numbers.requireNonNegative(indexCount);
-    this.custom = new HashMap<>(5);
     this.indexes = new ArrayList<>(indexCount);
-    this.flags = flags;
+    if (flags != null) {
+      flags.forEach(this::addFlag);
+    }
     this.isrc = isrc;
     this.performer = performer;
     this.songwriter = songwriter;
     this.title = title;
-    this.type = type;
+    setType(type);
     this.number = number;
     this.postgap = postgap;
     this.pregap = pregap;
@@ -131,39 +143,121 @@ public class Track extends CDLayoutObject implements CDTextable {
     return getIndexes().size() > index ? getIndexes().get(index) : null;
   }
 
+  /**
+   * Returns its first index with the given number, in constant time if it has
+   * one, null if none. If its indexes are changed other than through
+   * {@link #addIndex(Index)}, {@link #removeLastIndex()}, and
+   * {@link #clearIndexes()}, this falls back to a scan, and may return a later
+   * index with the number.
+   */
+  public Index getIndexByNumber(int number) {
+    if (this.indexSlots == null) {
+      this.indexSlots = newSlots(getIndexes(), Index::getNumber);
+    }
+    return findByNumber(
+      getIndexes(),
+      this.indexSlots,
+      Index::getNumber,
+      number
+    );
+  }
+
   /** Adds the given index. */
   public boolean addIndex(Index index) {
-    return getIndexes().add(index);
+    getIndexes().add(index);
+    if (this.indexSlots != null) {
+      addSlot(
+        getIndexes(),
+        this.indexSlots,
+        Index::getNumber,
+        getIndexes().size() - 1
+      );
+    }
+    return true;
   }
 
   /** Removes then returns its last index. */
   public Index removeLastIndex() {
-    return hasIndexes() ? getIndexes().remove(getIndexes().size() - 1) : null;
+    if (!hasIndexes()) {
+      return null;
+    }
+    int position = getIndexes().size() - 1;
+    Index out = getIndexes().remove(position);
+    if (this.indexSlots != null) {
+      removeSlot(this.indexSlots, out.getNumber(), position);
+    }
+    return out;
   }
 
   /** Removes all of its indexes. */
   public void clearIndexes() {
     getIndexes().clear();
+    this.indexSlots = null;
   }
 
-  /** Returns its FLAGS argument. */
+  /**
+   * Returns its FLAGS argument in order. The list is a live view: changes to
+   * it change its flags, and keep its flag mask in step.
+   */
   public List<String> getFlags() {
-    return this.flags;
+    return new FlagList();
   }
 
   /** Returns its flag at the given index. */
   public String getFlag(int index) {
-    return getFlags().size() > index ? getFlags().get(index) : null;
+    return this.flags != null && this.flags.size() > index
+      ? this.flags.get(index)
+      : null;
+  }
+
+  /** Returns its defined flags. */
+  public EnumSet<TrackFlag> getTrackFlags() {
+    EnumSet<TrackFlag> out = EnumSet.noneOf(TrackFlag.class);
+    Collections.addAll(out, TrackFlag.fromMask(this.flagMask));
+    return out;
+  }
+
+  /** Returns the mask of its defined flags. */
+  public int getFlagMask() {
+    return this.flagMask;
+  }
+
+  /** Returns its flags not defined by {@link TrackFlag}, in order. */
+  public List<String> getOtherFlags() {
+    if (this.flags == null || isFlagMaskWhole()) {
+      return Collections.emptyList();
+    }
+    List<String> out = new ArrayList<>(1);
+    for (String flag : this.flags) {
+      if (TrackFlag.parse(flag) == null) {
+        out.add(flag);
+      }
+    }
+    return out;
   }
 
-  /** Adds the given flag to its FLAGS argument. */
+  /**
+   * Adds the given flag to the end of its FLAGS argument. Defined flags are
+   * matched by exact case.
+   */
   public boolean addFlag(String flag) {
-    return getFlags().add(flag);
+    if (this.flags == null) {
+      this.flags = new ArrayList<>(1);
+    }
+    this.flags.add(flag);
+    this.flagMask |= getMask(flag);
+    return true;
+  }
+
+  /** Adds the given flag to the end of its FLAGS argument, if absent. */
+  public boolean addFlag(TrackFlag flag) {
+    return !hasFlag(flag) && addFlag(flag.toString());
   }
 
   /** Clears its FLAGS argument. */
   public void clearFlags() {
-    getFlags().clear();
+    this.flags = null;
+    this.flagMask = 0;
   }
 
   /** Returns its ISRC argument. */
@@ -223,12 +317,24 @@ public class Track extends CDLayoutObject implements CDTextable {
 
   /** Returns its track type argument. */
   public String getType() {
-    return this.type;
+    return this.trackType != null ? this.trackType.toString() : this.type;
   }
 
   /** Sets its track type argument. */
   public void setType(String type) {
-    this.type = type;
+    this.trackType = TrackType.parse(type);
+    this.type = this.trackType == null ? type : null;
+  }
+
+  /** Returns its track type, null if unset or not defined. */
+  public TrackType getTrackType() {
+    return this.trackType;
+  }
+
+  /** Sets its track type. */
+  public void setTrackType(TrackType trackType) {
+    this.trackType = trackType;
+    this.type = null;
   }
 
   /** {@inheritDoc} */
@@ -296,7 +402,40 @@ public class Track extends CDLayoutObject implements CDTextable {
 
   /** Returns whether its FLAGS argument is set. */
   public boolean hasFlags() {
-    return !getFlags().isEmpty();
+    return this.flags != null && !this.flags.isEmpty();
+  }
+
+  /** Returns whether it has the given flag. */
+  public boolean hasFlag(TrackFlag flag) {
+    return (this.flagMask & flag.getMask()) != 0;
+  }
+
+  /** Returns whether it has all flags of the given mask. */
+  public boolean hasFlags(int mask) {
+    return (this.flagMask & mask) == mask;
+  }
+
+  /**
+   * Returns whether its FLAGS argument is exactly its defined flags, each
+   * once, in canonical order, so that its flag mask alone restores it.
+   */
+  public boolean isFlagMaskWhole() {
+    if (!hasFlags()) {
+      return true;
+    }
+    if (this.flags.size() != Integer.bitCount(this.flagMask)) {
+      return false;
+    }
+    int previous = 0;
+    int mask;
+    for (String flag : this.flags) {
+      mask = getMask(flag);
+      if (mask <= previous) {
+        return false;
+      }
+      previous = mask;
+    }
+    return true;
   }
 
   /** Returns whether it has indexes. */
@@ -368,7 +507,8 @@ public class Track extends CDLayoutObject implements CDTextable {
         new CueSheetStatement(INDENT_FLAGS, String.join(" ", getFlags()))
       );
     }
-    getRems().forEach(rem -> out.add(new CueSheetStatement(INDENT_2_REM, rem)));
+    getRemsView()
+      .forEach(rem -> out.add(new CueSheetStatement(INDENT_2_REM, rem)));
     if (hasIsrc()) {
       out.add(new CueSheetStatement(INDENT_ISRC, getIsrc()));
     }
@@ -428,6 +568,29 @@ public class Track extends CDLayoutObject implements CDTextable {
     return out;
   }
 
+  /** Returns the mask of the given flag, 0 if it is not defined. */
+  protected static int getMask(String flag) {
+    TrackFlag trackFlag = TrackFlag.parse(flag);
+    return trackFlag != null ? trackFlag.getMask() : 0;
+  }
+
+  /** Recomputes its flag mask from its flags. */
+  protected void updateFlagMask() {
+    int mask = 0;
+    if (this.flags != null) {
+      for (String flag : this.flags) {
+        mask |= getMask(flag);
+      }
+    }
+    this.flagMask = (byte) mask;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected Map<String, String> newCustoms() {
+    return new HashMap<>(5);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void nullifyObject() {
@@ -436,6 +599,7 @@ public class Track extends CDLayoutObject implements CDTextable {
     }
     this.indexes.clear();
     this.indexes = null;
+    this.indexSlots = null;
     this.number = NUL_INT;
     this.pregap = NUL_INT;
     this.postgap = NUL_INT;
@@ -464,13 +628,68 @@ public class Track extends CDLayoutObject implements CDTextable {
   @Override
   public int hashCode() {
     return Objects.hash(
-      this.custom,
+      getCustoms(),
       this.indexes,
       this.number,
       this.postgap,
       this.pregap,
-      this.remarks,
-      this.type
+      getRemsView(),
+      getType()
     );
   }
+
+  /**
+   * A live view of the FLAGS argument of its track. Every change goes through
+   * {@link #add(int, String)}, {@link #set(int, String)}, or
+   * {@link #remove(int)}, which keep its flag mask in step.
+   */
+  protected class FlagList
+    extends AbstractList<String>
+    implements RandomAccess {
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(int index) {
+      if (Track.this.flags == null) {
+        throw new IndexOutOfBoundsException("Index: " + index);
+      }
+      return Track.this.flags.get(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return Track.this.flags != null ? Track.this.flags.size() : 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String set(int index, String flag) {
+      String out = get(index);
+      Track.this.flags.set(index, flag);
+      updateFlagMask();
+      return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void add(int index, String flag) {
+      if (Track.this.flags == null) {
+        Track.this.flags = new ArrayList<>(1);
+      }
+      Track.this.flags.add(index, flag);
+      Track.this.flagMask |= getMask(flag);
+      this.modCount++;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String remove(int index) {
+      String out = get(index);
+      Track.this.flags.remove(index);
+      updateFlagMask();
+      this.modCount++;
+      return out;
+    }
+  }
 }
@@ -0,0 +1,74 @@
+package eden.common.model.cd;
+
+/**
+ * Defines a track flag of a FLAGS cuesheet statement. Each has one bit of a
+ * flag mask, so that sets of them can be tested at once.
+ *
+ * @author Brendon
+ * @see eden.common.model.cd.Track#hasFlag(TrackFlag)
+ */
+public enum TrackFlag {
+  /** Digital copy permitted. */
+  DCP("DCP"),
+  /** Four channel audio. */
+  FOUR_CHANNEL("4CH"),
+  /** Pre-emphasis enabled. */
+  PRE("PRE"),
+  /** Serial copy management system. */
+  SCMS("SCMS");
+
+  /** Values in canonical order. */
+  protected static final TrackFlag[] VALUES = values();
+
+  /**
+   * Parses a track flag from the given string, matching its case exactly.
+   * Returns null if there is none.
+   */
+  public static TrackFlag parse(String string) {
+    if (string == null) {
+      return null;
+    }
+    for (TrackFlag flag : VALUES) {
+      if (flag.string.equals(string)) {
+        return flag;
+      }
+    }
+    return null;
+  }
+
+  /** Returns the track flags of the given mask in canonical order. */
+  public static TrackFlag[] fromMask(int mask) {
+    TrackFlag[] out = new TrackFlag[Integer.bitCount(mask & getMaskAll())];
+    int i = 0;
+    for (TrackFlag flag : VALUES) {
+      if ((mask & flag.getMask()) != 0) {
+        out[i++] = flag;
+      }
+    }
+    return out;
+  }
+
+  /** Returns the mask of all track flags. */
+  public static int getMaskAll() {
+    return (1 << VALUES.length) - 1;
+  }
+
+  /** String. */
+  protected final String string;
+
+  /** Makes an instance with the given string. */
+  private TrackFlag(String string) {
+    this.string = string;
+  }
+
+  /** Returns its bit of a flag mask. */
+  public int getMask() {
+    return 1 << ordinal();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.string;
+  }
+}
@@ -0,0 +1,85 @@
+package eden.common.model.cd;
+
+/**
+ * Defines a track type of a TRACK cuesheet statement, with the size of its
+ * sectors and whether it holds audio.
+ *
+ * @author Brendon
+ * @see eden.common.model.cd.Track#getTrackType()
+ */
+public enum TrackType {
+  /** Audio. */
+  AUDIO("AUDIO", 2352, true),
+  /** Karaoke CD+G. */
+  CDG("CDG", 2448, true),
+  /** CD-ROM Mode 1 data, cooked. */
+  MODE1_2048("MODE1/2048", 2048, false),
+  /** CD-ROM Mode 1 data, raw. */
+  MODE1_2352("MODE1/2352", 2352, false),
+  /** CD-ROM XA Mode 2 form 1 data, cooked. */
+  MODE2_2048("MODE2/2048", 2048, false),
+  /** CD-ROM XA Mode 2 form 2 data, cooked. */
+  MODE2_2324("MODE2/2324", 2324, false),
+  /** CD-ROM XA Mode 2 data, without sync and header. */
+  MODE2_2336("MODE2/2336", 2336, false),
+  /** CD-ROM XA Mode 2 data, raw. */
+  MODE2_2352("MODE2/2352", 2352, false),
+  /** CD-I Mode 2 data, without sync and header. */
+  CDI_2336("CDI/2336", 2336, false),
+  /** CD-I Mode 2 data, raw. */
+  CDI_2352("CDI/2352", 2352, false);
+
+  /** Values. */
+  protected static final TrackType[] VALUES = values();
+
+  /**
+   * Parses a track type from the given string, matching its case exactly.
+   * Returns null if there is none.
+   */
+  public static TrackType parse(String string) {
+    if (string == null) {
+      return null;
+    }
+    for (TrackType type : VALUES) {
+      if (type.string.equals(string)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /** String. */
+  protected final String string;
+  /** Sector size in bytes. */
+  protected final int sectorSize;
+  /** Whether it holds audio. */
+  protected final boolean audio;
+
+  /** Makes an instance with the given arguments. */
+  private TrackType(String string, int sectorSize, boolean audio) {
+    this.string = string;
+    this.sectorSize = sectorSize;
+    this.audio = audio;
+  }
+
+  /** Returns its sector size in bytes. */
+  public int getSectorSize() {
+    return this.sectorSize;
+  }
+
+  /** Returns whether it holds audio. */
+  public boolean isAudio() {
+    return this.audio;
+  }
+
+  /** Returns whether it holds data. */
+  public boolean isData() {
+    return !this.audio;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return this.string;
+  }
+}
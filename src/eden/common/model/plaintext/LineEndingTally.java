@@ -0,0 +1,165 @@
+package eden.common.model.plaintext;
+
+import java.util.Objects;
+
+/**
+ * Counts the line endings of a text, in order to tell its first and whether
+ * they are mixed.
+ *
+ * @author Brendon
+ * @see eden.common.model.plaintext.LineEnding
+ */
+public class LineEndingTally {
+
+  /** Number of CR line endings. */
+  protected int cr;
+  /** Number of CRLF line endings. */
+  protected int crlf;
+  /** Number of LF line endings. */
+  protected int lf;
+  /** First line ending. */
+  protected LineEnding first;
+
+  /** Makes an empty instance. */
+  public LineEndingTally() {}
+
+  /** Makes an instance with the given counts and first line ending. */
+  public LineEndingTally(int cr, int crlf, int lf, LineEnding first) {
+    this.cr = cr;
+    this.crlf = crlf;
+    this.lf = lf;
+    this.first = first;
+  }
+
+  /** Adds one to the count of the given line ending. */
+  public void add(LineEnding lineEnding) {
+    if (lineEnding == LineEnding.CR) {
+      this.cr++;
+    } else if (lineEnding == LineEnding.CRLF) {
+      this.crlf++;
+    } else if (lineEnding == LineEnding.LF) {
+      this.lf++;
+    } else {
+      return;
+    }
+    if (this.first == null) {
+      this.first = lineEnding;
+    }
+  }
+
+  /**
+   * Turns the last counted CR line ending into a CRLF one. This is for readers
+   * that see the CR before the LF that completes it.
+   */
+  public void promoteCr() {
+    if (this.cr == 0) {
+      return;
+    }
+    if (--this.cr == 0 && this.first == LineEnding.CR) {
+      this.first = null;
+    }
+    add(LineEnding.CRLF);
+  }
+
+  /** Returns the count of the given line ending. */
+  public int getCount(LineEnding lineEnding) {
+    if (lineEnding == LineEnding.CR) {
+      return this.cr;
+    }
+    if (lineEnding == LineEnding.CRLF) {
+      return this.crlf;
+    }
+    if (lineEnding == LineEnding.LF) {
+      return this.lf;
+    }
+    return 0;
+  }
+
+  /** Returns the total count of line endings. */
+  public int getCount() {
+    return this.cr + this.crlf + this.lf;
+  }
+
+  /** Returns its first line ending. */
+  public LineEnding getFirst() {
+    return this.first;
+  }
+
+  /** Returns its most frequent line ending, preferring its first on ties. */
+  public LineEnding getMost() {
+    LineEnding out = getFirst();
+    for (LineEnding lineEnding : new LineEnding[] {
+      LineEnding.CRLF,
+      LineEnding.LF,
+      LineEnding.CR,
+    }) {
+      if (getCount(lineEnding) > getCount(out)) {
+        out = lineEnding;
+      }
+    }
+    return out;
+  }
+
+  /** Clears its counts. */
+  public void clear() {
+    this.cr = 0;
+    this.crlf = 0;
+    this.lf = 0;
+    this.first = null;
+  }
+
+  /** Returns whether it has counted a line ending. */
+  public boolean hasFirst() {
+    return getFirst() != null;
+  }
+
+  /** Returns whether it has counted more than one kind of line ending. */
+  public boolean isMixed() {
+    return (
+      (this.cr > 0 ? 1 : 0) + (this.crlf > 0 ? 1 : 0) + (this.lf > 0 ? 1 : 0) >
+      1
+    );
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(Object object) {
+    return (
+      object == this ||
+      (
+        object != null &&
+        object.getClass() == getClass() &&
+        equals((LineEndingTally) object)
+      )
+    );
+  }
+
+  /** Returns whether the given instance is equal to it. */
+  protected boolean equals(LineEndingTally instance) {
+    return instance.hashCode() == hashCode();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.cr, this.crlf, this.first, this.lf);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return (
+      LineEnding.CR.getName() +
+      "=" +
+      this.cr +
+      ", " +
+      LineEnding.CRLF.getName() +
+      "=" +
+      this.crlf +
+      ", " +
+      LineEnding.LF.getName() +
+      "=" +
+      this.lf
+    );
+  }
+}
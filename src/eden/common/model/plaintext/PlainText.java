@@ -30,6 +30,10 @@ public class PlainText extends MediaFile implements Nullifiable {
   protected Charset charset;
   /** Line ending. */
   protected LineEnding lineEnding;
+  /** Line ending counts, if they have been tallied. */
+  protected LineEndingTally lineEndingTally;
+  /** Whether it starts with a byte order mark. */
+  protected boolean bom = false;
 
   /**
    * Makes an instance with the default character set and system line ending.
@@ -111,6 +115,26 @@ public class PlainText extends MediaFile implements Nullifiable {
     this.lineEnding = lineEnding;
   }
 
+  /** Returns its line ending counts. */
+  public LineEndingTally getLineEndingTally() {
+    return this.lineEndingTally;
+  }
+
+  /** Sets its line ending counts. */
+  public void setLineEndingTally(LineEndingTally lineEndingTally) {
+    this.lineEndingTally = lineEndingTally;
+  }
+
+  /** Returns whether it starts with a byte order mark. */
+  public boolean hasBom() {
+    return this.bom;
+  }
+
+  /** Sets whether it starts with a byte order mark. */
+  public void setBom(boolean bom) {
+    this.bom = bom;
+  }
+
   /** Returns whether its character set is set. */
   public boolean hasCharset() {
     return getCharset() != null;
@@ -121,6 +145,11 @@ public class PlainText extends MediaFile implements Nullifiable {
     return getLineEnding() != null;
   }
 
+  /** Returns whether its line ending counts are set. */
+  public boolean hasLineEndingTally() {
+    return getLineEndingTally() != null;
+  }
+
   /** {@inheritDoc} */
   @Override
   public MediaType getType() {
@@ -135,6 +164,8 @@ public class PlainText extends MediaFile implements Nullifiable {
     }
     this.charset = null;
     this.lineEnding = null;
+    this.lineEndingTally = null;
+    this.bom = false;
     super.nullifyObject();
   }
 
@@ -0,0 +1,370 @@
+package eden.common.util;
+
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Session;
+import eden.common.model.plaintext.LineEnding;
+import eden.common.model.plaintext.PlainText;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses a cuesheet from a byte buffer, such as a memory-mapped file.
+ *
+ * Cuesheet syntax is ASCII, so if its character set is ASCII-compatible, ASCII
+ * bytes are widened into its window as is, and only the words that contain
+ * other bytes are decoded. Such character sets encode ASCII as is, and their
+ * multi-byte sequences must not contain quotation marks, blanks, nor line
+ * endings. UTF-8, ISO 8859, Windows code pages, and Shift_JIS are such
+ * character sets. Others, such as UTF-16, are decoded whole. Reset to a
+ * reader, it parses from the reader as {@link CueSheetParser} does.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetParser
+ */
+public class ByteCueSheetParser extends CueSheetParser {
+
+  /** Maps the given file into memory, then returns its buffer. */
+  protected static ByteBuffer map(File file) throws IOException {
+    try (
+      FileChannel channel = FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.READ
+      )
+    ) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Returns whether the given character set encodes and decodes ASCII as is,
+   * one byte per character, regardless of what precedes or follows. Stateful
+   * character sets, such as the ISO 2022 family, are not, since their escape
+   * and shift bytes change the meaning of the bytes that follow.
+   */
+  protected static boolean isAsciiCompatible(Charset charset) {
+    if (!charset.canEncode()) {
+      return false;
+    }
+    CharsetEncoder encoder = charset.newEncoder();
+    CharsetDecoder decoderr = charset.newDecoder();
+    byte[] bytes = { 0, 'A' };
+    char[] characters = { 0, 'A' };
+    try {
+      for (int i = 0; i < 0x80; i++) {
+        bytes[0] = (byte) i;
+        characters[0] = (char) i;
+        if (
+          !ByteBuffer
+            .wrap(bytes)
+            .equals(encoder.encode(CharBuffer.wrap(characters))) ||
+          !CharBuffer
+            .wrap(characters)
+            .equals(decoderr.decode(ByteBuffer.wrap(bytes)))
+        ) {
+          return false;
+        }
+      }
+    } catch (CharacterCodingException exception) {
+      return false;
+    }
+    return true;
+  }
+
+  /** Buffer to parse from. */
+  protected ByteBuffer buffer;
+  /** Character set decoder. */
+  protected CharsetDecoder decoder;
+  /** Decoder view of its window. */
+  protected CharBuffer chars;
+  /** Whether its character set is ASCII-compatible. */
+  protected boolean ascii;
+  /** Whether its decoder has decoded its buffer whole and is flushing. */
+  protected boolean flushing = false;
+
+  /**
+   * Makes an instance with the given buffer in the character set detected
+   * from its byte order mark.
+   */
+  public ByteCueSheetParser(ByteBuffer buffer) {
+    this(buffer, detectCharset(buffer));
+  }
+
+  /** Makes an instance with the given buffer and character set. */
+  public ByteCueSheetParser(ByteBuffer buffer, Charset charset) {
+    this(buffer, charset, new CueSheet(new Session()));
+  }
+
+  /**
+   * Makes an instance with the given buffer and character set that parses for
+   * the given handler instead of into a cuesheet.
+   */
+  public ByteCueSheetParser(
+    ByteBuffer buffer,
+    Charset charset,
+    CueSheetHandler handler
+  ) {
+    this(buffer, charset, null, handler);
+  }
+
+  /**
+   * Makes an instance with the given file in the character set detected from
+   * its byte order mark.
+   */
+  public ByteCueSheetParser(File file) throws IOException {
+    this(file, map(file));
+  }
+
+  /** Makes an instance with the given file and character set. */
+  public ByteCueSheetParser(File file, Charset charset) throws IOException {
+    this(file, map(file), charset);
+  }
+
+  /**
+   * Makes an instance with the given file and character set that parses for
+   * the given handler instead of into a cuesheet.
+   */
+  public ByteCueSheetParser(
+    File file,
+    Charset charset,
+    CueSheetHandler handler
+  ) throws IOException {
+    this(map(file), charset, null, handler);
+  }
+
+  /**
+   * Makes an instance with the given file mapped into the given buffer, in the
+   * character set detected from its byte order mark.
+   */
+  protected ByteCueSheetParser(File file, ByteBuffer buffer) {
+    this(file, buffer, detectCharset(buffer));
+  }
+
+  /**
+   * Makes an instance with the given file mapped into the given buffer, in the
+   * given character set.
+   */
+  protected ByteCueSheetParser(File file, ByteBuffer buffer, Charset charset) {
+    this(
+      buffer,
+      charset,
+      new CueSheet(
+        new Session(),
+        new PlainText(file, charset, LineEnding.SYSTEM)
+      )
+    );
+  }
+
+  /**
+   * Makes an instance with the given buffer, character set, and resulting
+   * cuesheet.
+   */
+  protected ByteCueSheetParser(
+    ByteBuffer buffer,
+    Charset charset,
+    CueSheet sheet
+  ) {
+    this(buffer, charset, sheet, new CueSheetBuilder(sheet));
+  }
+
+  /**
+   * Makes an instance with the given buffer, character set, resulting
+   * cuesheet, and handler.
+   */
+  protected ByteCueSheetParser(
+    ByteBuffer buffer,
+    Charset charset,
+    CueSheet sheet,
+    CueSheetHandler handler
+  ) {
+    super(null, sheet, handler);
+    this.buffer = buffer;
+    this.decoder = charset.newDecoder();
+    this.chars = CharBuffer.wrap(this.window);
+    this.ascii = isAsciiCompatible(charset);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void nullifyObject() {
+    if (isObjectNullified()) {
+      return;
+    }
+    this.buffer = null;
+    this.chars = null;
+    this.decoder = null;
+    super.nullifyObject();
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given buffer
+   * in the character set detected from its byte order mark, reusing its
+   * buffers.
+   */
+  public void reset(ByteBuffer buffer) {
+    reset(buffer, detectCharset(buffer));
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given buffer
+   * in the given character set, reusing its buffers.
+   */
+  public void reset(ByteBuffer buffer, Charset charset) {
+    reset(new CueSheet(new Session()));
+    setCharset(charset);
+    this.buffer = buffer;
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given file
+   * mapped into memory, in the character set detected from its byte order
+   * mark, reusing its buffers.
+   */
+  @Override
+  public void reset(Path path) throws IOException {
+    ByteBuffer bufferr = map(path.toFile());
+    reset(bufferr, path, detectCharset(bufferr));
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given file
+   * mapped into memory, in the given character set, reusing its buffers.
+   */
+  public void reset(Path path, Charset charset) throws IOException {
+    reset(map(path.toFile()), path, charset);
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given buffer
+   * mapped from the given file, in the given character set.
+   */
+  protected void reset(ByteBuffer buffer, Path path, Charset charset) {
+    reset(
+      new CueSheet(
+        new Session(),
+        new PlainText(path.toFile(), charset, LineEnding.SYSTEM)
+      )
+    );
+    setCharset(charset);
+    this.buffer = buffer;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void reset(CueSheet sheet) {
+    super.reset(sheet);
+    this.decoder.reset();
+    this.flushing = false;
+  }
+
+  /** Sets its character set, keeping its decoder if it is the same. */
+  protected void setCharset(Charset charset) {
+    if (charset.equals(this.decoder.charset())) {
+      return;
+    }
+    this.decoder = charset.newDecoder();
+    this.ascii = isAsciiCompatible(charset);
+  }
+
+  /** Releases its buffer, then closes its reader if any. */
+  @Override
+  protected void closeReader() throws IOException {
+    this.buffer = null;
+    super.closeReader();
+  }
+
+  /**
+   * Refills its window from its buffer, or from its reader if it was reset to
+   * one, then returns whether it has characters to scan.
+   */
+  @Override
+  protected boolean fillWindow() throws IOException {
+    if (this.buffer == null) {
+      return super.fillWindow();
+    }
+    if (!this.ascii) {
+      return decodeWindow();
+    }
+    int count = 0;
+    int position = this.buffer.position();
+    int limit = this.buffer.limit();
+    byte bite;
+    while (count < this.window.length && position < limit) {
+      bite = this.buffer.get(position);
+      if (bite >= 0) {
+        this.window[count++] = (char) bite;
+        position++;
+        continue;
+      }
+      this.buffer.position(position);
+      this.chars.limit(this.window.length).position(count);
+      boolean complete = decodeWord();
+      count = this.chars.position();
+      position = this.buffer.position();
+      if (!complete) {
+        break;
+      }
+    }
+    this.buffer.position(position);
+    this.position = 0;
+    this.limit = count;
+    return count > 0;
+  }
+
+  /**
+   * Refills its window by decoding its buffer whole, then returns whether it
+   * has characters to scan.
+   */
+  protected boolean decodeWindow() throws CharacterCodingException {
+    this.chars.clear();
+    CoderResult result = CoderResult.UNDERFLOW;
+    if (!this.flushing) {
+      result = this.decoder.decode(this.buffer, this.chars, true);
+      this.flushing = result.isUnderflow();
+    }
+    if (this.flushing) {
+      result = this.decoder.flush(this.chars);
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    this.position = 0;
+    this.limit = this.chars.position();
+    return this.limit > 0;
+  }
+
+  /**
+   * Decodes the word at the position of its buffer into its window, then
+   * returns whether the word fits.
+   */
+  protected boolean decodeWord() throws CharacterCodingException {
+    int limit = this.buffer.limit();
+    int end = this.buffer.position();
+    while (end < limit && isOrdinary((char) (this.buffer.get(end) & 0xFF))) {
+      end++;
+    }
+    this.buffer.limit(end);
+    try {
+      this.decoder.reset();
+      CoderResult result = this.decoder.decode(this.buffer, this.chars, true);
+      if (result.isUnderflow()) {
+        result = this.decoder.flush(this.chars);
+      }
+      if (result.isError()) {
+        result.throwException();
+      }
+      return result.isUnderflow();
+    } finally {
+      this.buffer.limit(limit);
+    }
+  }
+}
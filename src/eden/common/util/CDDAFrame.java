@@ -1,6 +1,7 @@
 package eden.common.util;
 
 import eden.common.excep.string.StringMisformatException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -18,12 +19,18 @@ public class CDDAFrame {
   public static final int FPS = 75;
   /** Number of frames per minute. */
   public static final int FPM = FPS * 60;
+  /** Maximum length of a time code of a non-negative integer frame number. */
+  public static final int TIME_CODE_CAPACITY =
+    Integer.toString(Integer.MAX_VALUE / FPM).length() + 6;
+  /** Seconds per frame(s), unboxed. */
+  protected static final float[] SPF_FLOAT = new float[FPS];
   /** Initialization use only. */
   private static final List<Float> spf = new ArrayList<>(FPS);
 
   static {
     for (int i = 0; i < FPS; i++) {
-      spf.add((float) i / FPS);
+      SPF_FLOAT[i] = (float) i / FPS;
+      spf.add(SPF_FLOAT[i]);
     }
   }
 
@@ -32,15 +39,43 @@ public class CDDAFrame {
 
   /** Parses the given MM:SS:FF time code to a frame number. */
   public static int parse(String timeCode) {
+    return parse((CharSequence) timeCode);
+  }
+
+  /**
+   * Parses the given MM:SS:FF time code to a frame number, without making
+   * strings of its fields.
+   */
+  public static int parse(CharSequence timeCode) {
     Objects.requireNonNull(timeCode, "timeCode");
     if (timeCode.length() != 8) {
       throw new StringMisformatException("timeCode", "MM:SS:FF");
     }
     try {
       return (
-        Integer.parseInt(timeCode.substring(6, 8)) +
-        (FPS * Integer.parseInt(timeCode.substring(3, 5))) +
-        (FPM * Integer.parseInt(timeCode.substring(0, 2)))
+        Numbers.parseInt(timeCode, 6, 8) +
+        (FPS * Numbers.parseInt(timeCode, 3, 5)) +
+        (FPM * Numbers.parseInt(timeCode, 0, 2))
+      );
+    } catch (NumberFormatException exception) {
+      throw new StringMisformatException("timeCode", "MM:SS:FF");
+    }
+  }
+
+  /**
+   * Parses the MM:SS:FF time code in the given span of the given array to a
+   * frame number, without making strings of its fields.
+   */
+  public static int parse(char[] array, int offset, int length) {
+    Objects.requireNonNull(array, "array");
+    if (length != 8) {
+      throw new StringMisformatException("timeCode", "MM:SS:FF");
+    }
+    try {
+      return (
+        Numbers.parseInt(array, offset + 6, offset + 8) +
+        (FPS * Numbers.parseInt(array, offset + 3, offset + 5)) +
+        (FPM * Numbers.parseInt(array, offset, offset + 2))
       );
     } catch (NumberFormatException exception) {
       throw new StringMisformatException("timeCode", "MM:SS:FF");
@@ -50,27 +85,113 @@ public class CDDAFrame {
   /** Converts the given frame number to time in seconds. */
   public static float toSecond(int frame) {
     Numbers.requireNonNegative(frame);
-    return Math.floorDiv(frame, FPS) + SPF.get(frame % FPS);
+    return Math.floorDiv(frame, FPS) + SPF_FLOAT[frame % FPS];
+  }
+
+  /**
+   * Converts the given frame number to time in seconds, rounded once to the
+   * nearest double.
+   */
+  public static double toSecondDouble(int frame) {
+    Numbers.requireNonNegative(frame);
+    return (double) frame / FPS;
+  }
+
+  /** Converts the given frame numbers to times in seconds. */
+  public static double[] toSeconds(int[] frames) {
+    double[] out = new double[frames.length];
+    toSeconds(frames, 0, out, 0, frames.length);
+    return out;
+  }
+
+  /**
+   * Converts the given number of frame numbers from the given source position
+   * to times in seconds into the given destination position.
+   */
+  public static void toSeconds(
+    int[] frames,
+    int framesPosition,
+    double[] seconds,
+    int secondsPosition,
+    int length
+  ) {
+    if (
+      length < 0 ||
+      framesPosition < 0 ||
+      framesPosition > frames.length - length ||
+      secondsPosition < 0 ||
+      secondsPosition > seconds.length - length
+    ) {
+      throw new IndexOutOfBoundsException();
+    }
+    for (int i = 0; i < length; i++) {
+      seconds[secondsPosition + i] =
+        (double) Numbers.requireNonNegative(frames[framesPosition + i]) / FPS;
+    }
   }
 
   /** Formats the given frame number to an MM:SS:FF time code. */
   public static String toTimeCode(int frame) {
+    char[] out = new char[TIME_CODE_CAPACITY];
+    return new String(out, 0, toTimeCode(frame, out, 0));
+  }
+
+  /**
+   * Formats the given frame number to an MM:SS:FF time code into the given
+   * appendable.
+   */
+  public static void toTimeCode(int frame, Appendable appendable)
+    throws IOException {
+    Numbers.requireNonNegative(frame);
+    append2Digits(frame / FPM, appendable);
+    appendable.append(':');
+    append2Digits(frame % FPM / FPS, appendable);
+    appendable.append(':');
+    append2Digits(frame % FPS, appendable);
+  }
+
+  /**
+   * Formats the given frame number to an MM:SS:FF time code into the given
+   * array at the given offset, then returns the index after it. Minutes past
+   * 99 take more digits, up to {@link #TIME_CODE_CAPACITY} characters in all.
+   */
+  public static int toTimeCode(int frame, char[] array, int offset) {
     Numbers.requireNonNegative(frame);
-    int[] fields = new int[3];
-    fields[0] = Math.floorDiv(frame, FPM);
-    frame -= fields[0] * FPM;
-    fields[1] = Math.floorDiv(frame, FPS);
-    frame -= fields[1] * FPS;
-    fields[2] = frame;
-    StringBuilder out = new StringBuilder(8);
-    for (int i = 0;;) {
-      out.append(Numbers.toString2Digits(fields[i]));
-      if (++i == fields.length) {
-        break;
-      }
-      out.append(":");
+    offset = put2Digits(frame / FPM, array, offset);
+    array[offset++] = ':';
+    offset = put2Digits(frame % FPM / FPS, array, offset);
+    array[offset++] = ':';
+    return put2Digits(frame % FPS, array, offset);
+  }
+
+  /**
+   * Appends the given non-negative number of at least two digits to the given
+   * appendable.
+   */
+  protected static void append2Digits(int number, Appendable appendable)
+    throws IOException {
+    int divisor = 10;
+    while (divisor <= number / 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      appendable.append((char) ('0' + number / divisor % 10));
+    }
+  }
+
+  /**
+   * Puts the given non-negative number of at least two digits into the given
+   * array at the given offset, then returns the index after it.
+   */
+  protected static int put2Digits(int number, char[] array, int offset) {
+    int divisor = 10;
+    while (divisor <= number / 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      array[offset++] = (char) ('0' + number / divisor % 10);
     }
-    return out.toString();
+    return offset;
   }
 
   /** To prevent instantiations of this class. */
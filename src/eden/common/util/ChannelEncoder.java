@@ -0,0 +1,176 @@
+package eden.common.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Encodes the characters appended to it into a byte channel through reusable
+ * buffers. Its encoder is kept while the character set stays the same, so one
+ * instance can encode many files in turn. Without a channel, it keeps all the
+ * bytes it encodes, growing its byte buffer as needed.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheets#write(eden.common.model.cd.CueSheet)
+ */
+public class ChannelEncoder implements Appendable, Flushable {
+
+  /** Length of its character buffer. */
+  public static final int BUFFER_LENGTH = 8192;
+
+  /** Characters to encode. */
+  protected final CharBuffer chars = CharBuffer.allocate(BUFFER_LENGTH);
+  /** Encoded bytes to write. */
+  protected ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_LENGTH);
+  /** Character set encoder. */
+  protected CharsetEncoder encoder;
+  /** Channel to write to, null to keep its bytes. */
+  protected WritableByteChannel channel;
+
+  /** Makes an instance with the given channel and character set. */
+  public ChannelEncoder(WritableByteChannel channel, Charset charset) {
+    reset(channel, charset);
+  }
+
+  /**
+   * Clears its state to encode to the given channel in the given character
+   * set, reusing its buffers, and its encoder if the character set is the
+   * same. A null channel makes it keep its bytes until the next reset.
+   */
+  public void reset(WritableByteChannel channel, Charset charset) {
+    if (this.encoder == null || !this.encoder.charset().equals(charset)) {
+      this.encoder = charset.newEncoder();
+    }
+    this.encoder.reset();
+    this.chars.clear();
+    this.bytes.clear();
+    this.channel = channel;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ChannelEncoder append(char character) throws IOException {
+    if (!this.chars.hasRemaining()) {
+      encode(false);
+    }
+    this.chars.put(character);
+    return this;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ChannelEncoder append(CharSequence sequence) throws IOException {
+    if (sequence == null) {
+      sequence = "null";
+    }
+    return append(sequence, 0, sequence.length());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ChannelEncoder append(CharSequence sequence, int start, int end)
+    throws IOException {
+    if (sequence == null) {
+      sequence = "null";
+    }
+    int length;
+    while (start < end) {
+      if (!this.chars.hasRemaining()) {
+        encode(false);
+      }
+      length = Math.min(end - start, this.chars.remaining());
+      if (sequence instanceof String) {
+        this.chars.put((String) sequence, start, start + length);
+      } else {
+        for (int i = start; i < start + length; i++) {
+          this.chars.put(sequence.charAt(i));
+        }
+      }
+      start += length;
+    }
+    return this;
+  }
+
+  /**
+   * Encodes and writes the characters appended to it so far, then ends its
+   * encoding. Characters appended after this start a new encoding.
+   */
+  @Override
+  public void flush() throws IOException {
+    encode(true);
+    CoderResult result;
+    while ((result = this.encoder.flush(this.bytes)).isOverflow()) {
+      overflow();
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    if (this.channel != null) {
+      drain();
+    }
+    this.encoder.reset();
+  }
+
+  /** Returns its channel. */
+  public WritableByteChannel getChannel() {
+    return this.channel;
+  }
+
+  /**
+   * Returns a view of the bytes it kept since its last reset without a
+   * channel, ready to be read. The view is valid until its next reset.
+   */
+  public ByteBuffer getBytes() {
+    ByteBuffer out = this.bytes.duplicate();
+    out.flip();
+    return out;
+  }
+
+  /**
+   * Encodes its characters into its byte buffer, making room whenever it
+   * fills up.
+   */
+  protected void encode(boolean endOfInput) throws IOException {
+    this.chars.flip();
+    CoderResult result;
+    while (
+      (result = this.encoder.encode(this.chars, this.bytes, endOfInput))
+        .isOverflow()
+    ) {
+      overflow();
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    this.chars.compact();
+  }
+
+  /**
+   * Makes room in its full byte buffer, by writing its bytes to its channel,
+   * or by doubling it if it has none.
+   */
+  protected void overflow() throws IOException {
+    if (this.channel != null) {
+      drain();
+      return;
+    }
+    ByteBuffer grown = ByteBuffer.allocateDirect(this.bytes.capacity() * 2);
+    this.bytes.flip();
+    grown.put(this.bytes);
+    this.bytes = grown;
+  }
+
+  /** Writes its encoded bytes to its channel. */
+  protected void drain() throws IOException {
+    this.bytes.flip();
+    while (this.bytes.hasRemaining()) {
+      this.channel.write(this.bytes);
+    }
+    this.bytes.clear();
+  }
+}
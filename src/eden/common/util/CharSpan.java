@@ -0,0 +1,87 @@
+package eden.common.util;
+
+import java.util.Objects;
+
+/**
+ * A reusable view of a span of characters in an array, so that tokens can be
+ * inspected without copying them into strings. Changes to its array show
+ * through it.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetParser
+ */
+public class CharSpan implements CharSequence {
+
+  /** Viewed array. */
+  protected char[] array;
+  /** Index of its first character in its array. */
+  protected int offset;
+  /** Number of its characters. */
+  protected int length;
+
+  /** Makes an empty instance. */
+  public CharSpan() {
+    this(new char[0], 0, 0);
+  }
+
+  /** Makes an instance of the given span of the given array. */
+  public CharSpan(char[] array, int offset, int length) {
+    set(array, offset, length);
+  }
+
+  /** Views the given span of the given array. */
+  public void set(char[] array, int offset, int length) {
+    Objects.requireNonNull(array, "array");
+    if (offset < 0 || length < 0 || offset > array.length - length) {
+      throw new IndexOutOfBoundsException();
+    }
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /** Returns its viewed array. */
+  public char[] getArray() {
+    return this.array;
+  }
+
+  /** Returns the index of its first character in its array. */
+  public int getOffset() {
+    return this.offset;
+  }
+
+  /** Returns the index after its last character in its array. */
+  public int getEnd() {
+    return this.offset + this.length;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= this.length) {
+      throw new IndexOutOfBoundsException(Integer.toString(index));
+    }
+    return this.array[this.offset + index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int length() {
+    return this.length;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || start > end || end > this.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    return new CharSpan(this.array, this.offset + start, end - start);
+  }
+
+  /** Returns a new string of its characters. */
+  @Override
+  public String toString() {
+    return new String(this.array, this.offset, this.length);
+  }
+}
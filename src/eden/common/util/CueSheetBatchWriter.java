@@ -0,0 +1,227 @@
+package eden.common.util;
+
+import eden.common.model.cd.CueSheet;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes cuesheets to their files atomically, in batches. Each cuesheet is
+ * written to a temporary file beside its file. On commit, the temporary files
+ * are synchronized to the device, moved over their files atomically, then
+ * their directories are synchronized once each. A crash leaves each file
+ * either whole and old or whole and new. Each temporary file takes the
+ * permissions of its file, and its owner and group where allowed. The move
+ * replaces the file itself, so hard links to it keep the old contents, and a
+ * symbolic link is replaced by a regular file.
+ *
+ * Not thread-safe.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheets#writeAtomic(CueSheet)
+ */
+public class CueSheetBatchWriter implements Closeable {
+
+  /** Default number of cuesheets per batch. */
+  public static final int DEFAULT_BATCH_SIZE = 256;
+  /** Suffix of temporary files. */
+  protected static final String TEMP_SUFFIX = ".tmp";
+
+  /**
+   * Synchronizes the given directory to the device, so that the moves into it
+   * are durable. Does nothing where directories cannot be opened.
+   */
+  protected static void force(Path directory) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(directory, StandardOpenOption.READ);
+    } catch (IOException exception) {
+      return;
+    }
+    try (FileChannel channell = channel) {
+      channell.force(true);
+    }
+  }
+
+  /**
+   * Copies the permissions of the given file, and its owner and group where
+   * allowed, onto the given temporary file. Does nothing if the file does not
+   * exist or its file system is not POSIX.
+   */
+  protected static void copyAttributes(Path target, Path temp)
+    throws IOException {
+    PosixFileAttributeView targetView = Files.getFileAttributeView(
+      target,
+      PosixFileAttributeView.class
+    );
+    PosixFileAttributeView tempView = Files.getFileAttributeView(
+      temp,
+      PosixFileAttributeView.class
+    );
+    if (targetView == null || tempView == null) {
+      return;
+    }
+    PosixFileAttributes attributes;
+    try {
+      attributes = targetView.readAttributes();
+    } catch (NoSuchFileException exception) {
+      return;
+    }
+    try {
+      tempView.setOwner(attributes.owner());
+    } catch (IOException exception) {}
+    try {
+      tempView.setGroup(attributes.group());
+    } catch (IOException exception) {}
+    tempView.setPermissions(attributes.permissions());
+  }
+
+  /** Maximum number of cuesheets per batch. */
+  protected final int batchSize;
+  /** Files of the pending cuesheets. */
+  protected final List<Path> targets;
+  /** Temporary files of the pending cuesheets. */
+  protected final List<Path> temps;
+  /** Open channels to the temporary files. */
+  protected final List<FileChannel> channels;
+
+  /** Makes an instance with the default batch size. */
+  public CueSheetBatchWriter() {
+    this(DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Makes an instance with the given batch size, which also bounds the number
+   * of files open at once.
+   */
+  public CueSheetBatchWriter(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize");
+    }
+    this.batchSize = batchSize;
+    this.targets = new ArrayList<>(batchSize);
+    this.temps = new ArrayList<>(batchSize);
+    this.channels = new ArrayList<>(batchSize);
+  }
+
+  /**
+   * Writes the given cuesheet to a temporary file beside its file, then
+   * commits the batch if it is full. Does nothing if it has no file.
+   */
+  public void write(CueSheet sheet) throws IOException {
+    if (!sheet.hasFile() || !sheet.getFile().hasFile()) {
+      return;
+    }
+    Path target = sheet.getFile().getFile().toPath().toAbsolutePath();
+    Path temp;
+    FileChannel channel;
+    while (true) {
+      temp =
+        target.resolveSibling(
+          "." +
+          target.getFileName() +
+          "." +
+          Long.toHexString(ThreadLocalRandom.current().nextLong()) +
+          TEMP_SUFFIX
+        );
+      try {
+        channel =
+          FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE
+          );
+        break;
+      } catch (FileAlreadyExistsException exception) {}
+    }
+    try {
+      copyAttributes(target, temp);
+      CueSheets.write(sheet, channel);
+    } catch (IOException | RuntimeException exception) {
+      channel.close();
+      Files.deleteIfExists(temp);
+      throw exception;
+    }
+    this.targets.add(target);
+    this.temps.add(temp);
+    this.channels.add(channel);
+    if (this.channels.size() >= this.batchSize) {
+      commit();
+    }
+  }
+
+  /**
+   * Synchronizes its temporary files, moves them over their files, then
+   * synchronizes their directories. Temporary files that are not moved are
+   * deleted.
+   */
+  public void commit() throws IOException {
+    int moved = 0;
+    try {
+      for (FileChannel channel : this.channels) {
+        channel.force(true);
+        channel.close();
+      }
+      for (; moved < this.temps.size(); moved++) {
+        Files.move(
+          this.temps.get(moved),
+          this.targets.get(moved),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+        );
+      }
+      Set<Path> directories = new LinkedHashSet<>();
+      for (Path target : this.targets) {
+        directories.add(target.getParent());
+      }
+      for (Path directory : directories) {
+        force(directory);
+      }
+    } finally {
+      discard(moved);
+    }
+  }
+
+  /** Commits its pending cuesheets. */
+  @Override
+  public void close() throws IOException {
+    commit();
+  }
+
+  /** Returns its number of pending cuesheets. */
+  public int getPendingCount() {
+    return this.channels.size();
+  }
+
+  /**
+   * Closes and deletes its temporary files from the given position, then
+   * clears its pending cuesheets.
+   */
+  protected void discard(int position) throws IOException {
+    try {
+      for (FileChannel channel : this.channels) {
+        channel.close();
+      }
+      for (int i = position; i < this.temps.size(); i++) {
+        Files.deleteIfExists(this.temps.get(i));
+      }
+    } finally {
+      this.channels.clear();
+      this.targets.clear();
+      this.temps.clear();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package eden.common.util;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CDTextable;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+
+/**
+ * Builds a cuesheet from the statements it receives.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetHandler
+ */
+public class CueSheetBuilder implements CueSheetHandler {
+
+  /** Resulting cuesheet. */
+  protected CueSheet sheet;
+  /** Working track. */
+  protected Track track;
+  /** Working index. */
+  protected Index index;
+  /** FILE argument accumulators. */
+  protected String filePath, fileType;
+
+  /** Makes an instance with a new cuesheet. */
+  public CueSheetBuilder() {
+    this(new CueSheet());
+  }
+
+  /** Makes an instance with the given cuesheet. */
+  public CueSheetBuilder(CueSheet sheet) {
+    this.sheet = sheet;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onCatalog(String catalog) {
+    getSession().setCatalog(catalog);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onCdTextFile(String cdTextFile) {
+    getSession().setCdTextFile(cdTextFile);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onCustom(String command, String argument) {
+    getLayoutObject().setCustom(command, argument);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onFile(String path, String type) {
+    setFile(path, type);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onFlag(String flag) {
+    getTrack().addFlag(flag);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onIndex(int number, int frame) {
+    Index indexx = new Index(number, frame);
+    if (hasFile()) {
+      indexx.setFile(getFilePath(), getFileType());
+    }
+    if (getTrack().addIndex(indexx)) {
+      setIndex(indexx);
+      clearFile();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onIsrc(String isrc) {
+    getTrack().setIsrc(isrc);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onPerformer(String performer) {
+    getCdTextable().setPerformer(performer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onPostgap(int frame) {
+    getTrack().setPostgap(frame);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onPregap(int frame) {
+    getTrack().setPregap(frame);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onRem(String rem) {
+    getLayoutObject().addRem(rem);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onSongwriter(String songwriter) {
+    getCdTextable().setSongwriter(songwriter);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onTitle(String title) {
+    getCdTextable().setTitle(title);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void onTrack(int number, String type) {
+    Track trackk = new Track(number, type);
+    if (getSession().addTrack(trackk)) {
+      setTrack(trackk);
+      setIndex(null);
+    }
+  }
+
+  /** Clears its state to build the given cuesheet. */
+  public void reset(CueSheet sheet) {
+    this.sheet = sheet;
+    clearFile();
+    setIndex(null);
+    setTrack(null);
+  }
+
+  /** Returns its resulting cuesheet. */
+  public CueSheet getSheet() {
+    return this.sheet;
+  }
+
+  /** Returns its cuesheet session. */
+  protected Session getSession() {
+    return getSheet().getSession();
+  }
+
+  /** Returns its working track. */
+  protected Track getTrack() {
+    return this.track;
+  }
+
+  /** Sets its working track. */
+  protected void setTrack(Track track) {
+    this.track = track;
+  }
+
+  /** Returns its working index. */
+  protected Index getIndex() {
+    return this.index;
+  }
+
+  /** Sets its working index. */
+  protected void setIndex(Index index) {
+    this.index = index;
+  }
+
+  /**
+   * Returns its working layout object: its working index, its working track,
+   * or its session, whichever comes first.
+   */
+  protected CDLayoutObject getLayoutObject() {
+    if (getIndex() != null) {
+      return getIndex();
+    }
+    return getTrack() != null ? getTrack() : getSession();
+  }
+
+  /** Returns its working track if any, its session otherwise. */
+  protected CDTextable getCdTextable() {
+    return getTrack() != null ? getTrack() : getSession();
+  }
+
+  /** Returns its file path. */
+  protected String getFilePath() {
+    return this.filePath;
+  }
+
+  /** Returns its file type. */
+  protected String getFileType() {
+    return this.fileType;
+  }
+
+  /** Sets its FILE arguments. */
+  protected void setFile(String path, String type) {
+    this.filePath = path;
+    this.fileType = type;
+  }
+
+  /** Clears its FILE arguments. */
+  protected void clearFile() {
+    setFile(null, null);
+  }
+
+  /** Returns whether its FILE arguments are set. */
+  protected boolean hasFile() {
+    return getFilePath() != null && getFileType() != null;
+  }
+}
@@ -0,0 +1,399 @@
+package eden.common.util;
+
+import eden.common.model.cd.CueSheet;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches parsed cuesheets on disk, so that rescans only parse files that have
+ * changed. Each entry holds a cuesheet in binary form, keyed by the canonical
+ * path, size, and last-modified time of its file, and optionally by a hash of
+ * its content. Entries are written atomically, so concurrent parses may share
+ * one cache directory. Failing to write an entry does not fail its parse.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetCodec
+ */
+public class CueSheetCache {
+
+  /** Suffix of entry files. */
+  public static final String SUFFIX = ".cueb";
+  /** Suffix of temporary entry files, which also ends in that of entries. */
+  protected static final String TEMP_SUFFIX = ".tmp" + SUFFIX;
+  /**
+   * Age in milliseconds after which a temporary entry file is taken as left
+   * by a crashed write.
+   */
+  protected static final long TEMP_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+  /** Content hash algorithm. */
+  protected static final String HASH_ALGORITHM = "SHA-256";
+  /** Number of bytes of a path hash used to name entries. */
+  protected static final int NAME_LENGTH = 16;
+
+  /** Returns the hash of the given bytes. */
+  protected static byte[] hash(byte[] bytes) {
+    try {
+      return MessageDigest.getInstance(HASH_ALGORITHM).digest(bytes);
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /** Returns the hash of the content of the given file. */
+  protected static byte[] hash(Path path) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+    byte[] bytes = new byte[8192];
+    int length;
+    try (InputStream stream = Files.newInputStream(path)) {
+      while ((length = stream.read(bytes)) >= 0) {
+        digest.update(bytes, 0, length);
+      }
+    }
+    return digest.digest();
+  }
+
+  /** Directory of its entries. */
+  protected final Path directory;
+  /** Whether to key entries by content hash too. */
+  protected final boolean hashing;
+  /** Number of hits. */
+  protected final AtomicLong hits = new AtomicLong();
+  /** Number of misses. */
+  protected final AtomicLong misses = new AtomicLong();
+  /** Number of evicted entries. */
+  protected final AtomicLong evictions = new AtomicLong();
+
+  /** Makes an instance in the given directory, without content hashes. */
+  public CueSheetCache(Path directory) throws IOException {
+    this(directory, false);
+  }
+
+  /**
+   * Makes an instance in the given directory, creating it if absent. Keying
+   * by content hash reads each file on lookup, but catches changes that keep
+   * its size and last-modified time.
+   */
+  public CueSheetCache(Path directory, boolean hashing) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.hashing = hashing;
+  }
+
+  /**
+   * Returns the cached cuesheet of the given file if it is unchanged, parses
+   * and caches it otherwise.
+   */
+  public CueSheet parse(File file) throws Exception {
+    Path path = file.toPath().toRealPath();
+    Key key = key(path);
+    Path entry = getEntry(path);
+    CueSheet out = load(entry, key);
+    if (out != null) {
+      this.hits.incrementAndGet();
+      if (out.hasFile()) {
+        out.getFile().setFileAndTitle(file);
+      }
+      return out;
+    }
+    this.misses.incrementAndGet();
+    out = CueSheets.parse(file);
+    store(entry, key, out);
+    return out;
+  }
+
+  /** Removes the entry of the given file, if any. */
+  public boolean invalidate(File file) throws IOException {
+    if (Files.deleteIfExists(getEntry(file.toPath().toRealPath()))) {
+      this.evictions.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Removes the entries whose files are gone or changed, and the temporary
+   * entry files left by writes that did not finish, then returns their
+   * number.
+   */
+  public int purge() throws IOException {
+    int out = 0;
+    try (
+      DirectoryStream<Path> entries = Files.newDirectoryStream(
+        this.directory,
+        "*" + SUFFIX
+      )
+    ) {
+      for (Path entry : entries) {
+        if (isTemp(entry)) {
+          if (isTempStale(entry) && Files.deleteIfExists(entry)) {
+            out++;
+          }
+          continue;
+        }
+        ByteBuffer buffer;
+        try {
+          buffer = ByteBuffer.wrap(Files.readAllBytes(entry));
+        } catch (NoSuchFileException exception) {
+          continue;
+        }
+        boolean stale;
+        try {
+          Key key = Key.read(buffer);
+          Path path = new File(key.path).toPath();
+          stale = !Files.exists(path) || !key.equals(key(path));
+        } catch (IOException | RuntimeException exception) {
+          stale = true;
+        }
+        if (stale && Files.deleteIfExists(entry)) {
+          this.evictions.incrementAndGet();
+          out++;
+        }
+      }
+    }
+    return out;
+  }
+
+  /** Removes all entries, and all temporary entry files. */
+  public void clear() throws IOException {
+    try (
+      DirectoryStream<Path> entries = Files.newDirectoryStream(
+        this.directory,
+        "*" + SUFFIX
+      )
+    ) {
+      for (Path entry : entries) {
+        if (Files.deleteIfExists(entry) && !isTemp(entry)) {
+          this.evictions.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  /** Returns its directory. */
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  /** Returns its number of hits. */
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  /** Returns its number of misses. */
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  /** Returns its number of evicted entries. */
+  public long getEvictionCount() {
+    return this.evictions.get();
+  }
+
+  /** Returns whether it keys entries by content hash too. */
+  public boolean isHashing() {
+    return this.hashing;
+  }
+
+  /** Returns the entry file of the given canonical path. */
+  protected Path getEntry(Path path) {
+    byte[] hash = hash(path.toString().getBytes(StandardCharsets.UTF_8));
+    StringBuilder name = new StringBuilder(NAME_LENGTH * 2 + SUFFIX.length());
+    for (int i = 0; i < NAME_LENGTH; i++) {
+      name.append(Character.forDigit(hash[i] >>> 4 & 0xF, 16));
+      name.append(Character.forDigit(hash[i] & 0xF, 16));
+    }
+    return this.directory.resolve(name.append(SUFFIX).toString());
+  }
+
+  /** Returns whether the given file is a temporary entry file. */
+  protected static boolean isTemp(Path file) {
+    return file.getFileName().toString().endsWith(TEMP_SUFFIX);
+  }
+
+  /**
+   * Returns whether the given temporary entry file is old enough to have been
+   * left by a crashed write, rather than being written now.
+   */
+  protected static boolean isTempStale(Path file) {
+    try {
+      return (
+        System.currentTimeMillis() -
+          Files.getLastModifiedTime(file).toMillis() >
+        TEMP_MAX_AGE
+      );
+    } catch (IOException exception) {
+      return false;
+    }
+  }
+
+  /** Returns the key of the given canonical path. */
+  protected Key key(Path path) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(
+      path,
+      BasicFileAttributes.class
+    );
+    return new Key(
+      path.toString(),
+      attributes.size(),
+      attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+      this.hashing ? hash(path) : null
+    );
+  }
+
+  /**
+   * Returns the cuesheet of the given entry if its key is the given one, null
+   * otherwise. Stale and unreadable entries are removed.
+   */
+  protected CueSheet load(Path entry, Key key) throws IOException {
+    ByteBuffer buffer;
+    try {
+      buffer = ByteBuffer.wrap(Files.readAllBytes(entry));
+    } catch (NoSuchFileException exception) {
+      return null;
+    }
+    try {
+      if (Key.read(buffer).equals(key)) {
+        return CueSheets.readBinary(buffer);
+      }
+    } catch (IOException | RuntimeException exception) {}
+    if (Files.deleteIfExists(entry)) {
+      this.evictions.incrementAndGet();
+    }
+    return null;
+  }
+
+  /** Writes the given cuesheet with the given key to the given entry. */
+  protected void store(Path entry, Key key, CueSheet sheet) {
+    String name = entry.getFileName().toString();
+    Path temp = entry.resolveSibling(
+      name.substring(0, name.length() - SUFFIX.length()) +
+      "." +
+      Long.toHexString(ThreadLocalRandom.current().nextLong()) +
+      TEMP_SUFFIX
+    );
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      key.write(new DataOutputStream(bytes));
+      CueSheets.writeBinary(sheet, bytes);
+      Files.write(temp, bytes.toByteArray());
+      Files.move(
+        temp,
+        entry,
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (IOException | RuntimeException exception) {
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException exceptionn) {}
+    }
+  }
+
+  /** The key of an entry. */
+  protected static class Key {
+
+    /**
+     * Reads a key from the given buffer, leaving it at the cuesheet that
+     * follows.
+     */
+    protected static Key read(ByteBuffer buffer) {
+      byte[] path = new byte[buffer.getShort() & 0xFFFF];
+      buffer.get(path);
+      long size = buffer.getLong();
+      long modified = buffer.getLong();
+      byte[] hash = null;
+      int length = buffer.get() & 0xFF;
+      if (length > 0) {
+        hash = new byte[length];
+        buffer.get(hash);
+      }
+      return new Key(
+        new String(path, StandardCharsets.UTF_8),
+        size,
+        modified,
+        hash
+      );
+    }
+
+    /** Canonical path. */
+    protected final String path;
+    /** Size. */
+    protected final long size;
+    /** Last-modified time in nanoseconds. */
+    protected final long modified;
+    /** Content hash, null if not hashed. */
+    protected final byte[] hash;
+
+    /** Makes an instance with the given arguments. */
+    protected Key(String path, long size, long modified, byte[] hash) {
+      this.path = path;
+      this.size = size;
+      this.modified = modified;
+      this.hash = hash;
+    }
+
+    /** Writes it to the given output. */
+    protected void write(DataOutputStream output) throws IOException {
+      byte[] pathh = this.path.getBytes(StandardCharsets.UTF_8);
+      if (pathh.length > 0xFFFF) {
+        throw new IOException("Path too long.");
+      }
+      output.writeShort(pathh.length);
+      output.write(pathh);
+      output.writeLong(this.size);
+      output.writeLong(this.modified);
+      if (this.hash != null) {
+        output.writeByte(this.hash.length);
+        output.write(this.hash);
+      } else {
+        output.writeByte(0);
+      }
+      output.flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object object) {
+      if (object == this) {
+        return true;
+      }
+      if (object == null || object.getClass() != getClass()) {
+        return false;
+      }
+      Key instance = (Key) object;
+      return (
+        instance.size == this.size &&
+        instance.modified == this.modified &&
+        instance.path.equals(this.path) &&
+        Arrays.equals(instance.hash, this.hash)
+      );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+      return this.path.hashCode() ^ Long.hashCode(this.size ^ this.modified);
+    }
+  }
+}
@@ -0,0 +1,580 @@
+package eden.common.util;
+
+import static eden.common.shared.Constants.NUL_INT;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.model.cd.TrackFlag;
+import eden.common.model.plaintext.LineEnding;
+import eden.common.model.plaintext.LineEndingTally;
+import eden.common.model.plaintext.PlainText;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes cuesheets to and decodes them from a versioned compact binary form.
+ * Its output starts with a magic number and a version, then a table of every
+ * distinct string, then the cuesheet whose strings refer to the table. Numbers
+ * are variable-length, and each object starts with a bitset of its fields that
+ * are set, so unset fields take no space. Decoding restores an equal
+ * cuesheet, including its REM and custom statements and its file.
+ *
+ * Not thread-safe, but reusable.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheets#writeBinary(CueSheet, OutputStream)
+ */
+public class CueSheetCodec {
+
+  /** Magic number, "CUEB". */
+  public static final int MAGIC = 0x43554542;
+  /** Version of its form. */
+  public static final int VERSION = 1;
+  /** Shift of the flag bits in a track bitset. */
+  protected static final int FLAGS_SHIFT = 12;
+
+  /** Bit of the first string field. */
+  protected static final int HAS_STRING = 1;
+  /** Bit of REM arguments. */
+  protected static final int HAS_REMS = 1 << 6;
+  /** Bit of custom statements. */
+  protected static final int HAS_CUSTOMS = 1 << 7;
+  /** Bit of a pregap. */
+  protected static final int HAS_PREGAP = 1 << 8;
+  /** Bit of a postgap. */
+  protected static final int HAS_POSTGAP = 1 << 9;
+  /** Bit of flags listed as strings. */
+  protected static final int HAS_FLAG_LIST = 1 << 10;
+  /** Bit of a file. */
+  protected static final int HAS_FILE = 1;
+  /** Bit of a line ending tally. */
+  protected static final int HAS_TALLY = 1 << 5;
+  /** Bit of a byte order mark. */
+  protected static final int HAS_BOM = 1 << 6;
+
+  /** Indexes of the strings in its table. */
+  protected final Map<String, Integer> indexes = new HashMap<>();
+  /** Strings in its table. */
+  protected final List<String> strings = new ArrayList<>();
+  /** Encoded cuesheet, without its table. */
+  protected byte[] body = new byte[1024];
+  /** Length of its encoded cuesheet. */
+  protected int length;
+  /** Decoded string table. */
+  protected String[] table;
+  /** Characters of the string being decoded. */
+  protected char[] chars = new char[64];
+  /** Bytes being decoded. */
+  protected ByteBuffer buffer;
+
+  /** Makes an instance. */
+  public CueSheetCodec() {}
+
+  /** Encodes the given cuesheet to the given stream. */
+  public void encode(CueSheet sheet, OutputStream stream) throws IOException {
+    this.length = 0;
+    this.indexes.clear();
+    this.strings.clear();
+    try {
+      writeSheet(sheet);
+      int bodyLength = this.length;
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        writeByte(MAGIC >>> shift);
+      }
+      writeVarint(VERSION);
+      writeVarint(this.strings.size());
+      for (String string : this.strings) {
+        writeVarint(string.length());
+        for (int i = 0; i < string.length(); i++) {
+          writeVarint(string.charAt(i));
+        }
+      }
+      stream.write(this.body, bodyLength, this.length - bodyLength);
+      stream.write(this.body, 0, bodyLength);
+    } finally {
+      this.indexes.clear();
+      this.strings.clear();
+    }
+  }
+
+  /**
+   * Decodes a cuesheet from the given buffer, from its position.
+   *
+   * @throws EOFException If the buffer ends early.
+   * @throws StreamCorruptedException If the bytes are not a cuesheet in a
+   * supported version.
+   */
+  public CueSheet decode(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    try {
+      int magic = 0;
+      for (int i = 0; i < 4; i++) {
+        magic = magic << 8 | buffer.get() & 0xFF;
+      }
+      if (magic != MAGIC) {
+        throw new StreamCorruptedException("Bad magic number.");
+      }
+      int version = readVarint();
+      if (version < 1 || version > VERSION) {
+        throw new StreamCorruptedException("Unsupported version " + version);
+      }
+      this.table = new String[readCount()];
+      for (int i = 0; i < this.table.length; i++) {
+        this.table[i] = readTableString();
+      }
+      return readSheet();
+    } catch (BufferUnderflowException exception) {
+      throw new EOFException("Truncated cuesheet.");
+    } finally {
+      this.buffer = null;
+      this.table = null;
+    }
+  }
+
+  /** Writes the given cuesheet. */
+  protected void writeSheet(CueSheet sheet) {
+    PlainText file = sheet.getFile();
+    if (file == null) {
+      writeVarint(0);
+    } else {
+      LineEndingTally tally = file.getLineEndingTally();
+      writeVarint(
+        bits(
+          file.getFile() != null ? file.getFile().getPath() : null,
+          file.getTitle(),
+          file.getCharset() != null ? file.getCharset().name() : null,
+          file.getLineEnding() != null ? file.getLineEnding().getName() : null
+        ) <<
+        1 |
+        HAS_FILE |
+        (tally != null ? HAS_TALLY : 0) |
+        (file.hasBom() ? HAS_BOM : 0)
+      );
+      writeString(file.getFile() != null ? file.getFile().getPath() : null);
+      writeString(file.getTitle());
+      writeString(file.getCharset() != null ? file.getCharset().name() : null);
+      writeString(
+        file.getLineEnding() != null ? file.getLineEnding().getName() : null
+      );
+      if (tally != null) {
+        writeVarint(tally.getCount(LineEnding.CR));
+        writeVarint(tally.getCount(LineEnding.CRLF));
+        writeVarint(tally.getCount(LineEnding.LF));
+        writeReference(tally.hasFirst() ? tally.getFirst().getName() : null);
+      }
+    }
+    writeSession(sheet.getSession());
+  }
+
+  /** Writes the given session and its tracks. */
+  protected void writeSession(Session session) {
+    writeVarint(
+      bits(
+        session.getCatalog(),
+        session.getCdTextFile(),
+        session.getPerformer(),
+        session.getSongwriter(),
+        session.getTitle()
+      ) |
+      layoutBits(session)
+    );
+    writeString(session.getCatalog());
+    writeString(session.getCdTextFile());
+    writeString(session.getPerformer());
+    writeString(session.getSongwriter());
+    writeString(session.getTitle());
+    writeLayout(session);
+    writeVarint(session.getTracks().size());
+    for (Track track : session.getTracks()) {
+      writeTrack(track);
+    }
+  }
+
+  /** Writes the given track and its indexes. */
+  protected void writeTrack(Track track) {
+    int flags = track.isFlagMaskWhole() ? track.getFlagMask() : -1;
+    writeVarint(
+      bits(
+        track.getIsrc(),
+        track.getPerformer(),
+        track.getSongwriter(),
+        track.getTitle(),
+        track.getType()
+      ) |
+      layoutBits(track) |
+      (track.getPregap() != NUL_INT ? HAS_PREGAP : 0) |
+      (track.getPostgap() != NUL_INT ? HAS_POSTGAP : 0) |
+      (flags < 0 ? HAS_FLAG_LIST : flags << FLAGS_SHIFT)
+    );
+    writeSigned(track.getNumber());
+    writeString(track.getIsrc());
+    writeString(track.getPerformer());
+    writeString(track.getSongwriter());
+    writeString(track.getTitle());
+    writeString(track.getType());
+    if (track.getPregap() != NUL_INT) {
+      writeSigned(track.getPregap());
+    }
+    if (track.getPostgap() != NUL_INT) {
+      writeSigned(track.getPostgap());
+    }
+    if (flags < 0) {
+      List<String> flagss = track.getFlags();
+      writeVarint(flagss.size());
+      for (String flag : flagss) {
+        writeReference(flag);
+      }
+    }
+    writeLayout(track);
+    writeVarint(track.getIndexes().size());
+    for (Index index : track.getIndexes()) {
+      writeIndex(index);
+    }
+  }
+
+  /** Writes the given index. */
+  protected void writeIndex(Index index) {
+    writeVarint(
+      bits(index.getFilePath(), index.getFileType()) | layoutBits(index)
+    );
+    writeSigned(index.getNumber());
+    writeSigned(index.getFrame());
+    writeString(index.getFilePath());
+    writeString(index.getFileType());
+    writeLayout(index);
+  }
+
+  /** Writes the REM and custom statements of the given layout object. */
+  protected void writeLayout(CDLayoutObject object) {
+    if (object.hasRems()) {
+      writeVarint(object.getRems().size());
+      for (String rem : object.getRems()) {
+        writeReference(rem);
+      }
+    }
+    if (object.hasCustoms()) {
+      int[] count = { 0 };
+      object.forEachCustom((command, argument) -> {
+        count[0]++;
+        return argument;
+      });
+      writeVarint(count[0]);
+      object.forEachCustom((command, argument) -> {
+        writeReference(command);
+        writeReference(argument);
+        return argument;
+      });
+    }
+  }
+
+  /** Reads a cuesheet. */
+  protected CueSheet readSheet() throws IOException {
+    int bits = readVarint();
+    PlainText file = null;
+    if ((bits & HAS_FILE) != 0) {
+      String path = (bits & HAS_STRING << 1) != 0 ? readString() : null;
+      String title = (bits & HAS_STRING << 2) != 0 ? readString() : null;
+      String charset = (bits & HAS_STRING << 3) != 0 ? readString() : null;
+      String lineEnding = (bits & HAS_STRING << 4) != 0 ? readString() : null;
+      file =
+        new PlainText(
+          path != null ? new File(path) : null,
+          title,
+          charset != null ? Charset.forName(charset) : null,
+          LineEnding.parseName(lineEnding)
+        );
+      file.setTitle(title);
+      if ((bits & HAS_TALLY) != 0) {
+        file.setLineEndingTally(
+          new LineEndingTally(
+            readVarint(),
+            readVarint(),
+            readVarint(),
+            LineEnding.parseName(readReference())
+          )
+        );
+      }
+      file.setBom((bits & HAS_BOM) != 0);
+    }
+    return new CueSheet(readSession(), file);
+  }
+
+  /** Reads a session and its tracks. */
+  protected Session readSession() throws IOException {
+    int bits = readVarint();
+    String catalog = readString(bits, 0);
+    String cdTextFile = readString(bits, 1);
+    String performer = readString(bits, 2);
+    String songwriter = readString(bits, 3);
+    String title = readString(bits, 4);
+    List<String> rems = readRems(bits);
+    List<String> customs = readCustoms(bits);
+    int count = readCount();
+    Session out = new Session(
+      count,
+      catalog,
+      cdTextFile,
+      performer,
+      songwriter,
+      title
+    );
+    setLayout(out, rems, customs);
+    for (int i = 0; i < count; i++) {
+      out.addTrack(readTrack());
+    }
+    return out;
+  }
+
+  /** Reads a track and its indexes. */
+  protected Track readTrack() throws IOException {
+    int bits = readVarint();
+    int number = readSigned();
+    String isrc = readString(bits, 0);
+    String performer = readString(bits, 1);
+    String songwriter = readString(bits, 2);
+    String title = readString(bits, 3);
+    String type = readString(bits, 4);
+    int pregap = (bits & HAS_PREGAP) != 0 ? readSigned() : NUL_INT;
+    int postgap = (bits & HAS_POSTGAP) != 0 ? readSigned() : NUL_INT;
+    List<String> flags = null;
+    if ((bits & HAS_FLAG_LIST) != 0) {
+      int count = readCount();
+      flags = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        flags.add(readReference());
+      }
+    } else if (bits >>> FLAGS_SHIFT != 0) {
+      flags = new ArrayList<>(Integer.bitCount(bits >>> FLAGS_SHIFT));
+      for (TrackFlag flag : TrackFlag.fromMask(bits >>> FLAGS_SHIFT)) {
+        flags.add(flag.toString());
+      }
+    }
+    List<String> rems = readRems(bits);
+    List<String> customs = readCustoms(bits);
+    int count = readCount();
+    Track out = new Track(
+      number,
+      count,
+      postgap,
+      pregap,
+      flags,
+      isrc,
+      performer,
+      songwriter,
+      title,
+      type
+    );
+    setLayout(out, rems, customs);
+    for (int i = 0; i < count; i++) {
+      out.addIndex(readIndex());
+    }
+    return out;
+  }
+
+  /** Reads an index. */
+  protected Index readIndex() throws IOException {
+    int bits = readVarint();
+    int number = readSigned();
+    int frame = readSigned();
+    Index out = new Index(
+      number,
+      frame,
+      readString(bits, 0),
+      readString(bits, 1)
+    );
+    setLayout(out, readRems(bits), readCustoms(bits));
+    return out;
+  }
+
+  /** Reads REM arguments if the given bitset has them, null otherwise. */
+  protected List<String> readRems(int bits) throws IOException {
+    if ((bits & HAS_REMS) == 0) {
+      return null;
+    }
+    int count = readCount();
+    List<String> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      out.add(readReference());
+    }
+    return out;
+  }
+
+  /**
+   * Reads custom statements if the given bitset has them, null otherwise.
+   * Their commands and arguments alternate in the order they were written.
+   */
+  protected List<String> readCustoms(int bits) throws IOException {
+    if ((bits & HAS_CUSTOMS) == 0) {
+      return null;
+    }
+    int count = readCount();
+    List<String> out = new ArrayList<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      out.add(readReference());
+      out.add(readReference());
+    }
+    return out;
+  }
+
+  /**
+   * Adds the given REM and custom statements to the given layout object in
+   * their order, so that it writes them as its original did.
+   */
+  protected void setLayout(
+    CDLayoutObject object,
+    List<String> rems,
+    List<String> customs
+  ) {
+    if (rems != null) {
+      for (String rem : rems) {
+        object.addRem(rem);
+      }
+    }
+    if (customs != null) {
+      for (int i = 0; i < customs.size(); i += 2) {
+        object.setCustom(customs.get(i), customs.get(i + 1));
+      }
+    }
+  }
+
+  /** Returns the bitset of the given string fields that are set. */
+  protected static int bits(String... strings) {
+    int out = 0;
+    for (int i = 0; i < strings.length; i++) {
+      if (strings[i] != null) {
+        out |= HAS_STRING << i;
+      }
+    }
+    return out;
+  }
+
+  /** Returns the REM and custom bits of the given layout object. */
+  protected static int layoutBits(CDLayoutObject object) {
+    return (
+      (object.hasRems() ? HAS_REMS : 0) |
+      (object.hasCustoms() ? HAS_CUSTOMS : 0)
+    );
+  }
+
+  /** Writes the given string, if set, as a reference to its table. */
+  protected void writeString(String string) {
+    if (string != null) {
+      writeVarint(index(string));
+    }
+  }
+
+  /** Writes a reference to the given string, 0 if null. */
+  protected void writeReference(String string) {
+    writeVarint(string != null ? index(string) + 1 : 0);
+  }
+
+  /** Returns the index of the given string in its table, adding it if new. */
+  protected int index(String string) {
+    Integer out = this.indexes.get(string);
+    if (out == null) {
+      out = this.strings.size();
+      this.indexes.put(string, out);
+      this.strings.add(string);
+    }
+    return out;
+  }
+
+  /** Writes the given number in zigzag form. */
+  protected void writeSigned(int number) {
+    writeVarint((number << 1) ^ (number >> 31));
+  }
+
+  /** Writes the given unsigned number in seven-bit groups. */
+  protected void writeVarint(int number) {
+    while ((number & ~0x7F) != 0) {
+      writeByte((number & 0x7F) | 0x80);
+      number >>>= 7;
+    }
+    writeByte(number);
+  }
+
+  /** Writes the given byte. */
+  protected void writeByte(int octet) {
+    if (this.length == this.body.length) {
+      this.body = Arrays.copyOf(this.body, this.length * 2);
+    }
+    this.body[this.length++] = (byte) octet;
+  }
+
+  /** Reads a string of the given field index if the given bitset has it. */
+  protected String readString(int bits, int field) throws IOException {
+    return (bits & HAS_STRING << field) != 0 ? readString() : null;
+  }
+
+  /** Reads a reference to a string in its table. */
+  protected String readString() throws IOException {
+    int index = readVarint();
+    if (index < 0 || index >= this.table.length) {
+      throw new StreamCorruptedException("Bad string reference " + index);
+    }
+    return this.table[index];
+  }
+
+  /** Reads a reference to a string in its table, null if 0. */
+  protected String readReference() throws IOException {
+    int index = readVarint();
+    if (index < 0 || index > this.table.length) {
+      throw new StreamCorruptedException("Bad string reference " + index);
+    }
+    return index == 0 ? null : this.table[index - 1];
+  }
+
+  /** Reads a string of its table. */
+  protected String readTableString() throws IOException {
+    int length = readCount();
+    if (length > this.chars.length) {
+      this.chars = new char[Math.max(length, this.chars.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      this.chars[i] = (char) readVarint();
+    }
+    return new String(this.chars, 0, length);
+  }
+
+  /** Reads a count, which cannot exceed the number of remaining bytes. */
+  protected int readCount() throws IOException {
+    int out = readVarint();
+    if (out < 0 || out > this.buffer.remaining()) {
+      throw new StreamCorruptedException("Bad count " + out);
+    }
+    return out;
+  }
+
+  /** Reads a number in zigzag form. */
+  protected int readSigned() throws IOException {
+    int out = readVarint();
+    return (out >>> 1) ^ -(out & 1);
+  }
+
+  /** Reads an unsigned number in seven-bit groups. */
+  protected int readVarint() throws IOException {
+    int out = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int octet = this.buffer.get();
+      out |= (octet & 0x7F) << shift;
+      if (octet >= 0) {
+        return out;
+      }
+    }
+    throw new StreamCorruptedException("Bad variable-length number.");
+  }
+}
@@ -0,0 +1,58 @@
+package eden.common.util;
+
+/**
+ * Receives the statements of a cuesheet as they are parsed, in order, so that
+ * they can be consumed without building a cuesheet. Quoted arguments are
+ * passed without their quotation marks. Methods do nothing by default, so
+ * implementations need only override the ones they need.
+ *
+ * A statement that follows a TRACK statement belongs to that track, and a REM
+ * or custom statement that follows an INDEX statement belongs to that index.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetParser
+ * @see eden.common.util.CueSheetBuilder
+ */
+public interface CueSheetHandler {
+  /** Receives a CATALOG statement. */
+  default void onCatalog(String catalog) {}
+
+  /** Receives a CDTEXTFILE statement. */
+  default void onCdTextFile(String cdTextFile) {}
+
+  /** Receives a custom statement. */
+  default void onCustom(String command, String argument) {}
+
+  /** Receives a FILE statement. */
+  default void onFile(String path, String type) {}
+
+  /** Receives a flag of a FLAGS statement. */
+  default void onFlag(String flag) {}
+
+  /** Receives an INDEX statement. */
+  default void onIndex(int number, int frame) {}
+
+  /** Receives an ISRC statement. */
+  default void onIsrc(String isrc) {}
+
+  /** Receives a PERFORMER statement. */
+  default void onPerformer(String performer) {}
+
+  /** Receives a POSTGAP statement. */
+  default void onPostgap(int frame) {}
+
+  /** Receives a PREGAP statement. */
+  default void onPregap(int frame) {}
+
+  /** Receives a REM statement. */
+  default void onRem(String rem) {}
+
+  /** Receives a SONGWRITER statement. */
+  default void onSongwriter(String songwriter) {}
+
+  /** Receives a TITLE statement. */
+  default void onTitle(String title) {}
+
+  /** Receives a TRACK statement. */
+  default void onTrack(int number, String type) {}
+}
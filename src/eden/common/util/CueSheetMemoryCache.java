@@ -0,0 +1,314 @@
+package eden.common.util;
+
+import eden.common.model.cd.CompactSession;
+import eden.common.model.cd.CueSheet;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches parsed cuesheets in memory, bounded by weight and evicting the least
+ * recently used first. An entry is dropped when its file changes size or
+ * last-modified time, or when it outlives its time to live, if any.
+ *
+ * Each entry keeps its session as a shared, immutable {@link CompactSession},
+ * which {@link #parseCompact(File)} hands out as is, so readers cannot corrupt
+ * it. Each also keeps its cuesheet in binary form, from which
+ * {@link #parse(File)} decodes a private copy that callers may change. A
+ * decoded copy of a large cuesheet costs about a third of parsing its text,
+ * and its binary form is about a third of the size of its object graph, so
+ * copies are kept in binary form rather than as resident objects.
+ *
+ * Thread-safe. Parses happen outside its lock, so concurrent misses on one
+ * file may parse it more than once.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetCodec
+ */
+public class CueSheetMemoryCache {
+
+  /** Estimated weight of an entry besides its forms. */
+  protected static final int ENTRY_WEIGHT = 128;
+
+  /** Maximum total weight. */
+  protected final long maxWeight;
+  /** Time to live in nanoseconds, 0 for none. */
+  protected final long timeToLive;
+  /** Entries by canonical path, from least to most recently used. */
+  protected final Map<Path, Entry> entries = new LinkedHashMap<>(
+    16,
+    0.75f,
+    true
+  );
+  /** Total weight. */
+  protected long weight;
+  /** Number of hits. */
+  protected long hits;
+  /** Number of misses. */
+  protected long misses;
+  /** Number of entries evicted to fit its weight. */
+  protected long evictions;
+  /** Number of entries dropped as stale, invalidated or cleared. */
+  protected long invalidations;
+
+  /** Makes an instance with the given maximum weight in bytes. */
+  public CueSheetMemoryCache(long maxWeight) {
+    this(maxWeight, 0, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Makes an instance with the given maximum weight in bytes and time to
+   * live. Passing 0 time to live keeps entries until evicted or changed.
+   */
+  public CueSheetMemoryCache(long maxWeight, long timeToLive, TimeUnit unit) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("maxWeight");
+    }
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("timeToLive");
+    }
+    this.maxWeight = maxWeight;
+    this.timeToLive = unit.toNanos(timeToLive);
+  }
+
+  /**
+   * Returns a copy of the cached cuesheet of the given file if it is
+   * unchanged, parses and caches it otherwise.
+   */
+  public CueSheet parse(File file) throws Exception {
+    Path path = file.toPath().toRealPath();
+    BasicFileAttributes attributes = readAttributes(path);
+    Entry entry = get(path, attributes);
+    CueSheet out;
+    if (entry != null) {
+      out = CueSheets.readBinary(ByteBuffer.wrap(entry.bytes));
+      if (out.hasFile()) {
+        out.getFile().setFileAndTitle(file);
+      }
+      return out;
+    }
+    out = CueSheets.parse(file);
+    put(path, newEntry(out, attributes));
+    return out;
+  }
+
+  /**
+   * Returns the cached session of the given file if it is unchanged, parses
+   * and caches it otherwise. The session is shared, and immutable.
+   */
+  public CompactSession parseCompact(File file) throws Exception {
+    Path path = file.toPath().toRealPath();
+    BasicFileAttributes attributes = readAttributes(path);
+    Entry entry = get(path, attributes);
+    if (entry == null) {
+      entry = newEntry(CueSheets.parse(file), attributes);
+      put(path, entry);
+    }
+    return entry.session;
+  }
+
+  /** Removes the entry of the given file, if any. */
+  public boolean invalidate(File file) throws IOException {
+    Path path = file.toPath().toRealPath();
+    synchronized (this) {
+      if (!remove(path)) {
+        return false;
+      }
+      this.invalidations++;
+      return true;
+    }
+  }
+
+  /** Removes all entries. */
+  public synchronized void clear() {
+    this.invalidations += this.entries.size();
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  /** Returns its maximum total weight. */
+  public long getMaxWeight() {
+    return this.maxWeight;
+  }
+
+  /** Returns its time to live in the given unit. */
+  public long getTimeToLive(TimeUnit unit) {
+    return unit.convert(this.timeToLive, TimeUnit.NANOSECONDS);
+  }
+
+  /** Returns its total weight. */
+  public synchronized long getWeight() {
+    return this.weight;
+  }
+
+  /** Returns its number of entries. */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /** Returns its number of hits. */
+  public synchronized long getHitCount() {
+    return this.hits;
+  }
+
+  /** Returns its number of misses. */
+  public synchronized long getMissCount() {
+    return this.misses;
+  }
+
+  /** Returns its number of entries evicted to fit its weight. */
+  public synchronized long getEvictionCount() {
+    return this.evictions;
+  }
+
+  /**
+   * Returns its number of entries dropped because their files changed, they
+   * outlived their time to live, or they were invalidated or cleared.
+   */
+  public synchronized long getInvalidationCount() {
+    return this.invalidations;
+  }
+
+  /** Returns the attributes of the file of the given path. */
+  protected static BasicFileAttributes readAttributes(Path path)
+    throws IOException {
+    return Files.readAttributes(path, BasicFileAttributes.class);
+  }
+
+  /** Makes an entry of the given cuesheet and attributes of its file. */
+  protected static Entry newEntry(
+    CueSheet sheet,
+    BasicFileAttributes attributes
+  ) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CueSheets.writeBinary(sheet, bytes);
+    return new Entry(
+      bytes.toByteArray(),
+      new CompactSession(sheet.getSession()),
+      attributes.size(),
+      attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+    );
+  }
+
+  /**
+   * Returns the entry of the given path if its file still has the given
+   * attributes, null otherwise, counting a hit or a miss.
+   */
+  protected synchronized Entry get(
+    Path path,
+    BasicFileAttributes attributes
+  ) {
+    Entry out = this.entries.get(path);
+    if (
+      out != null &&
+      !out.isFresh(
+        attributes.size(),
+        attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+        this.timeToLive
+      )
+    ) {
+      remove(path);
+      this.invalidations++;
+      out = null;
+    }
+    if (out != null) {
+      this.hits++;
+    } else {
+      this.misses++;
+    }
+    return out;
+  }
+
+  /**
+   * Adds the given entry, then evicts the least recently used entries until
+   * its weight fits. An entry heavier than its maximum weight is not added.
+   */
+  protected synchronized void put(Path path, Entry entry) {
+    long entryWeight = entry.getWeight(path);
+    if (entryWeight > this.maxWeight) {
+      return;
+    }
+    remove(path);
+    this.entries.put(path, entry);
+    this.weight += entryWeight;
+    Iterator<Map.Entry<Path, Entry>> iterator =
+      this.entries.entrySet().iterator();
+    while (this.weight > this.maxWeight && iterator.hasNext()) {
+      Map.Entry<Path, Entry> eldest = iterator.next();
+      this.weight -= eldest.getValue().getWeight(eldest.getKey());
+      iterator.remove();
+      this.evictions++;
+    }
+  }
+
+  /**
+   * Removes the entry of the given path, if any, without counting it. Hold its
+   * lock.
+   */
+  protected boolean remove(Path path) {
+    Entry entry = this.entries.remove(path);
+    if (entry == null) {
+      return false;
+    }
+    this.weight -= entry.getWeight(path);
+    return true;
+  }
+
+  /** A cuesheet in binary and compact forms, and the state of its file. */
+  protected static class Entry {
+
+    /** Cuesheet in binary form. */
+    protected final byte[] bytes;
+    /** Session in compact form. */
+    protected final CompactSession session;
+    /** Size of its file. */
+    protected final long size;
+    /** Last-modified time of its file in nanoseconds. */
+    protected final long modified;
+    /** Time of its creation in nanoseconds. */
+    protected final long created = System.nanoTime();
+
+    /** Makes an instance with the given arguments. */
+    protected Entry(
+      byte[] bytes,
+      CompactSession session,
+      long size,
+      long modified
+    ) {
+      this.bytes = bytes;
+      this.session = session;
+      this.size = size;
+      this.modified = modified;
+    }
+
+    /**
+     * Returns whether its file still has the given size and last-modified
+     * time, and it has not outlived the given time to live.
+     */
+    protected boolean isFresh(long size, long modified, long timeToLive) {
+      return (
+        this.size == size &&
+        this.modified == modified &&
+        (timeToLive == 0 || System.nanoTime() - this.created < timeToLive)
+      );
+    }
+
+    /** Returns its estimated weight in bytes under the given path. */
+    protected long getWeight(Path path) {
+      return (
+        ENTRY_WEIGHT +
+        this.bytes.length +
+        this.session.getWeight() +
+        path.toString().length() * 2L
+      );
+    }
+  }
+}
@@ -5,46 +5,140 @@ import static eden.common.shared.Constants.NUL_INT;
 import static eden.common.shared.Constants.NUL_LONG;
 import static eden.common.shared.Constants.NUL_STRING;
 
+import eden.common.excep.EDENRuntimeException;
 import eden.common.excep.NullifiedObjectException;
 import eden.common.excep.cd.BadCueSheetException;
 import eden.common.excep.cd.CatalogAgainException;
 import eden.common.excep.cd.CommandUnexpectedException;
+import eden.common.excep.cd.StatementMisformatException;
 import eden.common.excep.string.StringMisquoteException;
-import eden.common.model.cd.CDLayoutObject;
 import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.CueSheetCommand;
 import eden.common.model.cd.CueSheetStatement;
-import eden.common.model.cd.Index;
 import eden.common.model.cd.Session;
-import eden.common.model.cd.Track;
 import eden.common.model.plaintext.LineEnding;
+import eden.common.model.plaintext.LineEndingTally;
 import eden.common.model.plaintext.PlainText;
 import eden.common.object.Dieable;
 import eden.common.object.Nullifiable;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * Parses a cuesheet from either a reader or a file.
+ * Parses a cuesheet from a reader, a file, an input stream, or a channel.
  *
  * @author Brendon
  * @see eden.common.model.cd.CueSheet
  */
 public class CueSheetParser implements Closeable, Dieable, Nullifiable {
 
+  /** Length of its character window. */
+  public static final int WINDOW_LENGTH = 8192;
+
+  /** Returns whether the given character is not a word delimiter. */
+  protected static boolean isOrdinary(char character) {
+    switch (character) {
+      case '\"':
+      case '\t':
+      case ' ':
+      case '\n':
+      case '\r':
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Detects the character set of the given buffer from its byte order mark,
+   * without moving its position. Returns the default character set if it has
+   * none.
+   */
+  public static Charset detectCharset(ByteBuffer buffer) {
+    byte[] bom = new byte[Math.min(buffer.remaining(), 3)];
+    for (int i = 0; i < bom.length; i++) {
+      bom[i] = buffer.get(buffer.position() + i);
+    }
+    return detectCharset(bom, bom.length);
+  }
+
+  /**
+   * Detects the character set from the given number of leading bytes. Returns
+   * the default character set if they are not a byte order mark.
+   */
+  protected static Charset detectCharset(byte[] bom, int length) {
+    if (
+      length >= 3 &&
+      bom[0] == (byte) 0xEF &&
+      bom[1] == (byte) 0xBB &&
+      bom[2] == (byte) 0xBF
+    ) {
+      return StandardCharsets.UTF_8;
+    }
+    if (
+      length >= 2 &&
+      (
+        (bom[0] == (byte) 0xFE && bom[1] == (byte) 0xFF) ||
+        (bom[0] == (byte) 0xFF && bom[1] == (byte) 0xFE)
+      )
+    ) {
+      return StandardCharsets.UTF_16;
+    }
+    return PlainText.DEFAULT_CHARSET;
+  }
+
+  /**
+   * Opens the given stream for parsing in the character set detected from its
+   * byte order mark.
+   */
+  protected static Reader open(InputStream stream) throws IOException {
+    PushbackInputStream pushback = new PushbackInputStream(stream, 3);
+    byte[] bom = new byte[3];
+    int length = 0, count;
+    while (
+      length < bom.length &&
+      (count = pushback.read(bom, length, bom.length - length)) > 0
+    ) {
+      length += count;
+    }
+    pushback.unread(bom, 0, length);
+    return open(pushback, detectCharset(bom, length));
+  }
+
+  /** Opens the given stream for parsing in the given character set. */
+  protected static Reader open(InputStream stream, Charset charset) {
+    return new InputStreamReader(stream, charset.newDecoder());
+  }
+
+  /** Opens the given file for parsing. */
+  protected static Reader open(File file) throws IOException {
+    return Files.newBufferedReader(Paths.get(file.toURI()));
+  }
+
   /** Reader to parse from. */
   protected Reader reader;
-  /** Resulting cuesheet. */
+  /** Resulting cuesheet, null if it is parsing for another handler. */
   protected CueSheet sheet;
-  /** Working track. */
-  protected Track track;
-  /** Working index. */
-  protected Index index;
+  /** Handler to receive its statements. */
+  protected CueSheetHandler handler;
   /** Operation mode. */
   protected Mode mode = Mode.SESSION;
   /** Exception defining its death. */
@@ -53,12 +147,22 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
   protected StringBuilder builder = new StringBuilder(
     CueSheetStatement.LINE_WIDTH
   );
-  /** FILE argument accumulators. */
-  protected String filePath, fileType;
+  /** Token view of its window. */
+  protected CharSpan span = new CharSpan();
+  /** Whether its token is its window span instead of its character buffer. */
+  protected boolean spanned = false;
   /** String accumulator. */
   protected String string;
   /** Integer accumulators. */
   protected int[] acc = new int[2];
+  /** Character window. */
+  protected char[] window = new char[WINDOW_LENGTH];
+  /** Position of the next character in its window. */
+  protected int position = 0;
+  /** Number of characters in its window. */
+  protected int limit = 0;
+  /** Line ending counts. */
+  protected LineEndingTally tally = new LineEndingTally();
   /** Line count. */
   protected long lineCount = 1;
   /** Whether its reader has reached the end-of-file. */
@@ -69,6 +173,18 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
   protected boolean eow = false;
   /** Whether it is bypassing word detection. */
   protected boolean esc = false;
+  /** Whether it has parsed a CATALOG statement. */
+  protected boolean catalog = false;
+  /** Whether it skips malformed statements instead of dying. */
+  protected boolean recovering = false;
+  /** Exceptions it has recovered from. */
+  protected List<EDENRuntimeException> diagnostics;
+  /** Number of tracks to parse before it finishes, or NUL_INT for all. */
+  protected int trackLimit = NUL_INT;
+  /** Number of tracks it has parsed. */
+  protected int trackCount = 0;
+  /** Pool of canonical argument strings, null if it does not pool. */
+  protected StringPool pool;
 
   /** Makes an instance with the given string. */
   public CueSheetParser(String string) {
@@ -77,17 +193,77 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
 
   /** Makes an instance with the given reader. */
   public CueSheetParser(Reader reader) {
-    this.reader = reader;
-    this.sheet = new CueSheet(new Session());
+    this(reader, new CueSheet(new Session()));
+  }
+
+  /**
+   * Makes an instance with the given reader that parses for the given handler
+   * instead of into a cuesheet.
+   */
+  public CueSheetParser(Reader reader, CueSheetHandler handler) {
+    this(reader, null, handler);
+  }
+
+  /**
+   * Makes an instance with the given stream in the character set detected
+   * from its byte order mark.
+   */
+  public CueSheetParser(InputStream stream) throws IOException {
+    this(open(stream));
+  }
+
+  /** Makes an instance with the given stream and character set. */
+  public CueSheetParser(InputStream stream, Charset charset) {
+    this(open(stream, charset));
+  }
+
+  /**
+   * Makes an instance with the given channel in the character set detected
+   * from its byte order mark.
+   */
+  public CueSheetParser(ReadableByteChannel channel) throws IOException {
+    this(Channels.newInputStream(channel));
+  }
+
+  /** Makes an instance with the given channel and character set. */
+  public CueSheetParser(ReadableByteChannel channel, Charset charset) {
+    this(Channels.newInputStream(channel), charset);
   }
 
   /** Makes an instance with the given file. */
   public CueSheetParser(File file) throws IOException {
-    this.reader = Files.newBufferedReader(Paths.get(file.toURI()));
-    this.sheet = new CueSheet(new Session(), new PlainText(file));
+    this(open(file), new CueSheet(new Session(), new PlainText(file)));
+  }
+
+  /**
+   * Makes an instance with the given file that parses for the given handler
+   * instead of into a cuesheet.
+   */
+  public CueSheetParser(File file, CueSheetHandler handler)
+    throws IOException {
+    this(open(file), null, handler);
+  }
+
+  /** Makes an instance with the given reader and resulting cuesheet. */
+  protected CueSheetParser(Reader reader, CueSheet sheet) {
+    this(reader, sheet, new CueSheetBuilder(sheet));
   }
 
-  /** Parses a cuesheet from its reader into itself, then returns it. */
+  /** Makes an instance with the given reader, sheet, and handler. */
+  protected CueSheetParser(
+    Reader reader,
+    CueSheet sheet,
+    CueSheetHandler handler
+  ) {
+    this.reader = reader;
+    this.sheet = sheet;
+    this.handler = handler;
+  }
+
+  /**
+   * Parses a cuesheet from its reader into itself, then returns it. Returns
+   * null if it is parsing for another handler.
+   */
   public CueSheet parse() {
     if (isObjectDead()) {
       return null;
@@ -96,52 +272,24 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
       return getSheet();
     }
     try {
-      parseLineEnding();
-      if (Strings.isNullOrEmpty(readWord())) {
-        return getSheet();
-      }
-      if (getString().charAt(0) == BOM) {
-        getBuilder().deleteCharAt(0);
-        setStringToBuilder();
-      }
-      do {
-        if (getString().isEmpty()) {} else if (
-          getString().equalsIgnoreCase(CDLayoutObject.CATALOG)
-        ) {
-          parseCatalog();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.CDTEXTFILE)) {
-          parseCdTextFile();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.FILE)) {
-          parseFile();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.FLAGS)) {
-          parseFlags();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.INDEX)) {
-          parseIndex();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.ISRC)) {
-          parseIsrc();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.PERFORMER)) {
-          parsePerformer();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.POSTGAP)) {
-          parsePostgap();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.PREGAP)) {
-          parsePregap();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.REM)) {
-          parseRem();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.SONGWRITER)) {
-          parseSongwriter();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.TITLE)) {
-          parseTitle();
-        } else if (getString().equalsIgnoreCase(CDLayoutObject.TRACK)) {
-          parseTrack();
-        } else {
-          parseCustom();
+      if (scanWord() && getToken().length() > 0) {
+        if (getToken().charAt(0) == BOM) {
+          spillToken();
+          getBuilder().deleteCharAt(0);
+          if (getSheet() != null && getSheet().hasFile()) {
+            getSheet().getFile().setBom(true);
+          }
         }
-      } while (readWord() != null);
+        do {
+          parseStatement();
+        } while (scanStatement());
+      }
     } catch (IOException exception) {
       die(exception);
     } catch (Exception exception) {
       die(exception);
     }
+    parseLineEnding();
     return getSheet();
   }
 
@@ -167,19 +315,23 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
     clearBuilder();
     this.acc = null;
     this.builder = null;
+    this.span = null;
+    this.window = null;
+    this.position = 0;
+    this.limit = 0;
+    this.catalog = false;
+    this.diagnostics = null;
     this.eof = false;
     this.eol = false;
     this.eow = false;
     this.esc = false;
-    this.filePath = null;
-    this.fileType = null;
-    this.index = null;
+    this.handler = null;
     this.lineCount = NUL_LONG;
     this.mode = null;
     this.reader = null;
     this.sheet = null;
     this.string = null;
-    this.track = null;
+    this.tally = null;
     die(NullifiedObjectException.nul);
   }
 
@@ -196,44 +348,154 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
       return;
     }
     try {
-      getReader().close();
+      closeReader();
     } catch (IOException exception) {
       die(exception);
     }
     die(new IOException("Stream closed."));
   }
 
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given reader,
+   * reusing its buffers.
+   */
+  public void reset(Reader reader) {
+    reset(new CueSheet(new Session()));
+    this.reader = reader;
+  }
+
+  /**
+   * Closes it, then revives it to parse a new cuesheet from the given file,
+   * reusing its buffers.
+   */
+  public void reset(Path path) throws IOException {
+    Reader readerr = open(path.toFile());
+    reset(new CueSheet(new Session(), new PlainText(path.toFile())));
+    this.reader = readerr;
+  }
+
+  /**
+   * Closes it, then clears its state for a new parse. The given cuesheet
+   * becomes its result if it parses for a {@link CueSheetBuilder}.
+   *
+   * @throws eden.common.excep.NullifiedObjectUseException If it is nullified.
+   */
+  protected void reset(CueSheet sheet) {
+    requireNonNullified();
+    close();
+    if (getHandler() instanceof CueSheetBuilder) {
+      ((CueSheetBuilder) getHandler()).reset(sheet);
+      this.sheet = sheet;
+    }
+    Arrays.fill(this.acc, 0);
+    clearBuilder();
+    this.catalog = false;
+    this.deathCause = null;
+    this.diagnostics = null;
+    this.eof = false;
+    this.eol = false;
+    this.eow = false;
+    this.esc = false;
+    this.limit = 0;
+    this.lineCount = 1;
+    this.mode = Mode.SESSION;
+    this.position = 0;
+    this.reader = null;
+    this.string = null;
+    this.tally = new LineEndingTally();
+    this.trackCount = 0;
+  }
+
+  /**
+   * {@link #parse()} branch: statement. Records malformed statements and skips
+   * their lines if it is recovering.
+   */
+  protected void parseStatement() throws IOException {
+    if (getToken().length() == 0) {
+      return;
+    }
+    try {
+      parseCommand();
+    } catch (EDENRuntimeException | IllegalArgumentException exception) {
+      recover(exception);
+    }
+  }
+
+  /** {@link #parseStatement()} branch: command. */
+  protected void parseCommand() throws IOException {
+    switch (CueSheetCommand.classify(getToken())) {
+      case CATALOG:
+        parseCatalog();
+        break;
+      case CDTEXTFILE:
+        parseCdTextFile();
+        break;
+      case FILE:
+        parseFile();
+        break;
+      case FLAGS:
+        parseFlags();
+        break;
+      case INDEX:
+        parseIndex();
+        break;
+      case ISRC:
+        parseIsrc();
+        break;
+      case PERFORMER:
+        parsePerformer();
+        break;
+      case POSTGAP:
+        parsePostgap();
+        break;
+      case PREGAP:
+        parsePregap();
+        break;
+      case REM:
+        parseRem();
+        break;
+      case SONGWRITER:
+        parseSongwriter();
+        break;
+      case TITLE:
+        parseTitle();
+        break;
+      case TRACK:
+        parseTrack();
+        break;
+      case CUSTOM:
+        setStringToBuilder();
+        parseCustom();
+        break;
+    }
+  }
+
   /** {@link #parse()} branch: CATALOG. */
   protected void parseCatalog() throws IOException {
-    if (getSession().hasCatalog()) {
+    if (this.catalog) {
       throw new CatalogAgainException(getLineCount());
     }
-    getSession().setCatalog(readWord());
+    getHandler().onCatalog(readArgument());
+    this.catalog = true;
   }
 
   /** {@link #parse()} branch: CDTEXTFILE. */
   protected void parseCdTextFile() throws IOException {
-    getSession().setCdTextFile(CueSheets.ensureNoQuote(readWord()));
+    getHandler().onCdTextFile(CueSheets.ensureNoQuote(readArgument()));
   }
 
   /** {@link #parse()} branch: custom. */
   protected void parseCustom() throws IOException {
-    switch (getMode()) {
-      case SESSION:
-        getSession().setCustom(getString(), readRestOfLine());
-        break;
-      case TRACK:
-        getTrack().setCustom(getString(), readRestOfLine());
-        break;
-      case INDEX:
-        getIndex().setCustom(getString(), readRestOfLine());
-        break;
-    }
+    getHandler().onCustom(getString(), readRestOfLine());
   }
 
   /** {@link #parse()} branch: FILE. */
   protected void parseFile() throws IOException {
-    setFile(CueSheets.ensureNoQuote(readWord()), readWord());
+    getHandler()
+      .onFile(
+        CueSheets.ensureNoQuote(readArgument()),
+        intern(readArgument())
+      );
   }
 
   /** {@link #parse()} branch: FLAGS. */
@@ -245,7 +507,7 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
         break;
       case TRACK:
         for (String flag : readRestOfLine().split("\\p{Blank}")) {
-          getTrack().addFlag(flag);
+          getHandler().onFlag(intern(flag));
         }
         break;
     }
@@ -253,15 +515,16 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
 
   /** {@link #parse()} branch: INDEX. */
   protected void parseIndex() throws IOException {
-    setIndex(
-      new Index(Integer.parseInt(readWord()), CDDAFrame.parse(readWord()))
-    );
-    if (hasFile()) {
-      getIndex().setFile(getFilePath(), getFileType());
-      clearFile();
+    switch (getMode()) {
+      case SESSION:
+        throwCommandUnexpectedException();
+        break;
+      case TRACK:
+      case INDEX:
+        getHandler().onIndex(readInt(), readFrame());
+        setMode(Mode.INDEX);
+        break;
     }
-    getTrack().addIndex(getIndex());
-    setMode(Mode.INDEX);
   }
 
   /** {@link #parse()} branch: ISRC. */
@@ -272,33 +535,28 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
         throwCommandUnexpectedException();
         break;
       case TRACK:
-        getTrack().setIsrc(readWord());
+        getHandler().onIsrc(readArgument());
         break;
     }
   }
 
-  /** {@link #parse()} branch: line ending. */
-  protected void parseLineEnding() throws IOException {
-    if (getSheet().hasFile()) try (
-      Reader readerr = Files.newBufferedReader(
-        getSheet().getFile().getFile().toPath()
-      )
-    ) {
-      getSheet().getFile().setLineEnding(LineEnding.parse(readerr));
+  /**
+   * {@link #parse()} branch: line ending. Records the line endings counted
+   * while reading, so that its file is not read again.
+   */
+  protected void parseLineEnding() {
+    if (getSheet() != null && getSheet().hasFile()) {
+      getSheet().getFile().setLineEndingTally(getTally());
+      if (getTally().hasFirst()) {
+        getSheet().getFile().setLineEnding(getTally().getFirst());
+      }
     }
   }
 
   /** {@link #parse()} branch: PERFORMER. */
   protected void parsePerformer() throws IOException {
-    switch (getMode()) {
-      case SESSION:
-        getSession().setPerformer(CueSheets.ensureNoQuote(readWord()));
-        break;
-      case TRACK:
-      case INDEX:
-        getTrack().setPerformer(CueSheets.ensureNoQuote(readWord()));
-        break;
-    }
+    getHandler()
+      .onPerformer(intern(CueSheets.ensureNoQuote(readArgument())));
   }
 
   /** {@link #parse()} branch: POSTGAP. */
@@ -309,7 +567,7 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
         throwCommandUnexpectedException();
         break;
       case INDEX:
-        getTrack().setPostgap(CDDAFrame.parse(readWord()));
+        getHandler().onPostgap(readFrame());
         break;
     }
   }
@@ -322,61 +580,40 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
         throwCommandUnexpectedException();
         break;
       case TRACK:
-        getTrack().setPregap(CDDAFrame.parse(readWord()));
+        getHandler().onPregap(readFrame());
         break;
     }
   }
 
   /** {@link #parse()} branch: REM. */
   protected void parseRem() throws IOException {
-    switch (getMode()) {
-      case SESSION:
-        getSession().addRem(readRestOfLine());
-        break;
-      case TRACK:
-        getTrack().addRem(readRestOfLine());
-        break;
-      case INDEX:
-        getIndex().addRem(readRestOfLine());
-        break;
-    }
+    getHandler().onRem(readRestOfLine());
   }
 
   /** {@link #parse()} branch: SONGWRITER. */
   protected void parseSongwriter() throws IOException {
-    switch (getMode()) {
-      case SESSION:
-        getSession().setSongwriter(CueSheets.ensureNoQuote(readWord()));
-        break;
-      case TRACK:
-      case INDEX:
-        getTrack().setSongwriter(CueSheets.ensureNoQuote(readWord()));
-        break;
-    }
+    getHandler()
+      .onSongwriter(intern(CueSheets.ensureNoQuote(readArgument())));
   }
 
   /** {@link #parse()} branch: TITLE. */
   protected void parseTitle() throws IOException {
-    switch (getMode()) {
-      case SESSION:
-        getSession().setTitle(CueSheets.ensureNoQuote(readWord()));
-        break;
-      case TRACK:
-      case INDEX:
-        getTrack().setTitle(CueSheets.ensureNoQuote(readWord()));
-        break;
-    }
+    getHandler().onTitle(intern(CueSheets.ensureNoQuote(readArgument())));
   }
 
   /** {@link #parse()} branch: TRACK. */
   protected void parseTrack() throws IOException {
-    setTrack(new Track(Integer.parseInt(readWord()), readWord()));
-    getSession().getTracks().add(getTrack());
+    if (this.trackLimit >= 0 && this.trackCount >= this.trackLimit) {
+      finish();
+      return;
+    }
+    this.trackCount++;
+    getHandler().onTrack(readInt(), intern(readArgument()));
     setMode(Mode.TRACK);
   }
 
-  /** {@link #readItem(boolean)} branch: end-of-line. */
-  protected String processEol() {
+  /** {@link #scanItem(boolean)} branch: end-of-line. */
+  protected void processEol() {
     this.eol = true;
     this.eow = true;
     if (isEsc()) {
@@ -384,16 +621,77 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
         BadCueSheetException.makeSubject(lineCount)
       );
     }
-    setStringToBuilder();
-    return getString();
   }
 
-  /** {@link #readItem(boolean)} branch: quote. */
+  /** {@link #scanItem(boolean)} branch: quote. */
   protected void processQuote() {
     this.eow = false;
     this.esc = !isEsc();
   }
 
+  /**
+   * Scans the command of the next statement into its character buffer, then
+   * returns whether there was one. Misquoted commands are recorded and
+   * skipped if it is recovering.
+   */
+  protected boolean scanStatement() throws IOException {
+    try {
+      return scanWord();
+    } catch (StringMisquoteException exception) {
+      recover(exception);
+      clearBuilder();
+      return true;
+    }
+  }
+
+  /**
+   * Records the given exception then skips the rest of its line if it is
+   * recovering, rethrows it otherwise. Exceptions without a line number are
+   * wrapped in a StatementMisformatException.
+   */
+  protected void recover(RuntimeException exception) throws IOException {
+    if (!isRecovering()) {
+      throw exception;
+    }
+    if (
+      exception instanceof BadCueSheetException ||
+      exception instanceof StringMisquoteException
+    ) {
+      addDiagnostic((EDENRuntimeException) exception);
+    } else {
+      addDiagnostic(new StatementMisformatException(getLineCount(), exception));
+    }
+    skipLine();
+  }
+
+  /** Skips the rest of its current line, ignoring quotation marks. */
+  protected void skipLine() throws IOException {
+    if (!isEol()) {
+      try {
+        scanItem(false);
+      } catch (StringMisquoteException exception) {}
+    }
+    this.esc = false;
+  }
+
+  /**
+   * Reads the next word from its reader as a decimal integer, decoding it in
+   * place.
+   */
+  protected int readInt() throws IOException {
+    scanArgument();
+    return Numbers.parseInt(getToken());
+  }
+
+  /**
+   * Reads the next word from its reader as an MM:SS:FF time code to a frame
+   * number, decoding it in place.
+   */
+  protected int readFrame() throws IOException {
+    scanArgument();
+    return CDDAFrame.parse(getToken());
+  }
+
   /** Reads and returns the next line from its reader. */
   protected String readLine() throws IOException {
     return readItem(false);
@@ -412,19 +710,77 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
     return readItem(true);
   }
 
+  /**
+   * Reads and returns the next word from its reader as a statement argument.
+   *
+   * @throws StatementMisformatException If its reader has ended.
+   */
+  protected String readArgument() throws IOException {
+    String out = readWord();
+    if (out == null) {
+      throw new StatementMisformatException(getLineCount());
+    }
+    return out;
+  }
+
   /** Reads and returns the next item from its reader. */
   protected String readItem(boolean word) throws IOException {
-    if (isEof()) {
+    if (!scanItem(word)) {
       return null;
     }
+    setStringToBuilder();
+    return getString();
+  }
+
+  /**
+   * Scans the next word from its reader into its character buffer, then
+   * returns whether there was one.
+   */
+  protected boolean scanWord() throws IOException {
+    return scanItem(true);
+  }
+
+  /**
+   * Scans the next word from its reader into its character buffer as a
+   * statement argument.
+   *
+   * @throws StatementMisformatException If its reader has ended.
+   */
+  protected void scanArgument() throws IOException {
+    if (!scanWord()) {
+      throw new StatementMisformatException(getLineCount());
+    }
+  }
+
+  /**
+   * Scans the next item from its reader into its character buffer, then
+   * returns whether there was one. Runs of ordinary characters are scanned
+   * within its window and appended as spans.
+   */
+  protected boolean scanItem(boolean word) throws IOException {
+    if (isEof()) {
+      return false;
+    }
     clearBuilder();
+    char character;
+    int start;
     while (true) {
       if (isEol()) {
         incrementLineCount();
         this.eol = false;
       }
-      setAcc(getReader().read());
-      switch (getAcc0()) {
+      if (this.position == this.limit) {
+        spillToken();
+        if (!fillWindow()) {
+          setAcc(-1);
+          this.eof = true;
+          processEol();
+          return true;
+        }
+      }
+      character = this.window[this.position++];
+      setAcc(character);
+      switch (character) {
         case '\"':
           processQuote();
           break;
@@ -436,65 +792,99 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
             }
             this.eow = true;
             if (word) {
-              setStringToBuilder();
-              return getString();
+              return true;
             }
           }
           break;
         case '\n':
           if (getAcc1() == '\r') {
+            getTally().promoteCr();
             continue;
           }
+          getTally().add(LineEnding.LF);
+          processEol();
+          return true;
         case '\r':
-          return processEol();
-        case -1:
-          this.eof = true;
-          return processEol();
+          getTally().add(LineEnding.CR);
+          processEol();
+          return true;
         default:
           this.eow = false;
+          start = this.position - 1;
+          while (
+            this.position < this.limit && isOrdinary(this.window[this.position])
+          ) {
+            this.position++;
+          }
+          appendToken(start, this.position - start);
+          if (this.position - start > 1) {
+            setAcc(this.window[this.position - 1]);
+          }
+          continue;
       }
-      getBuilder().appendCodePoint(getAcc0());
+      appendToken(this.position - 1, 1);
     }
   }
 
-  /** Makes an CommandUnexpectedException at the current context. */
-  protected void throwCommandUnexpectedException() {
-    throw new CommandUnexpectedException(getLineCount(), getString());
+  /**
+   * Refills its window from its reader, then returns whether it has characters
+   * to scan.
+   */
+  protected boolean fillWindow() throws IOException {
+    int count;
+    do {
+      count = getReader().read(this.window, 0, this.window.length);
+    } while (count == 0);
+    this.position = 0;
+    this.limit = Math.max(count, 0);
+    return count > 0;
   }
 
-  /** Returns its reader. */
-  protected Reader getReader() {
-    return this.reader;
+  /**
+   * Finishes parsing before its next statement, then closes its reader early.
+   * It stays alive, so its partial result is not a failure.
+   */
+  protected void finish() throws IOException {
+    this.eof = true;
+    this.position = this.limit;
+    closeReader();
   }
 
-  /** Returns its resulting cuesheet. */
-  protected CueSheet getSheet() {
-    return this.sheet;
+  /** Returns the canonical instance of the given argument from its pool. */
+  protected String intern(String string) {
+    return this.pool != null ? this.pool.intern(string) : string;
   }
 
-  /** Returns its cuesheet session. */
-  protected Session getSession() {
-    return getSheet().getSession();
+  /** Closes and releases its reader if any. */
+  protected void closeReader() throws IOException {
+    if (getReader() != null) {
+      getReader().close();
+      this.reader = null;
+    }
   }
 
-  /** Returns its working track. */
-  protected Track getTrack() {
-    return this.track;
+  /**
+   * Makes an CommandUnexpectedException at the current context. Its character
+   * buffer must still hold the command.
+   */
+  protected void throwCommandUnexpectedException() {
+    setStringToBuilder();
+    throw new CommandUnexpectedException(getLineCount(), getString());
   }
 
-  /** Sets its working track. */
-  protected void setTrack(Track track) {
-    this.track = track;
+  /** Returns its reader. */
+  protected Reader getReader() {
+    return this.reader;
   }
 
-  /** Returns its working index. */
-  protected Index getIndex() {
-    return this.index;
+  /** Returns its resulting cuesheet. */
+  protected CueSheet getSheet() {
+    return this.sheet;
   }
 
-  /** Sets its working index. */
-  protected void setIndex(Index index) {
-    this.index = index;
+  /** Returns its handler. */
+  protected CueSheetHandler getHandler() {
+    return this.handler;
   }
 
   /** Returns its operating mode. */
@@ -512,30 +902,54 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
     return this.builder;
   }
 
-  /** Clears its character buffer. */
+  /** Clears its character buffer and its token. */
   protected void clearBuilder() {
     getBuilder().delete(0, getBuilder().length());
+    this.spanned = false;
   }
 
-  /** Returns its file path. */
-  protected String getFilePath() {
-    return this.filePath;
-  }
-
-  /** Returns its file type. */
-  protected String getFileType() {
-    return this.fileType;
+  /**
+   * Returns its token: the span of its window if the token lies whole within
+   * it, its character buffer otherwise. Either is valid until the next scan.
+   */
+  protected CharSequence getToken() {
+    return this.spanned ? this.span : getBuilder();
   }
 
-  /** Sets its FILE arguments. */
-  protected void setFile(String path, String type) {
-    this.filePath = path;
-    this.fileType = type;
+  /**
+   * Appends the given span of its window to its token, extending its window
+   * span while the token is contiguous, copying to its character buffer
+   * otherwise.
+   */
+  protected void appendToken(int start, int length) {
+    if (this.spanned) {
+      if (this.span.getEnd() == start) {
+        this.span.set(
+          this.window,
+          this.span.getOffset(),
+          this.span.length() + length
+        );
+        return;
+      }
+      spillToken();
+    } else if (getBuilder().length() == 0) {
+      this.span.set(this.window, start, length);
+      this.spanned = true;
+      return;
+    }
+    getBuilder().append(this.window, start, length);
   }
 
-  /** Clears its FILE arguments. */
-  protected void clearFile() {
-    setFile(null, null);
+  /**
+   * Copies its window span into its character buffer, so that its window can
+   * be refilled or its token modified.
+   */
+  protected void spillToken() {
+    if (this.spanned) {
+      getBuilder()
+        .append(this.window, this.span.getOffset(), this.span.length());
+      this.spanned = false;
+    }
   }
 
   /** Returns its string accumulator. */
@@ -545,7 +959,7 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
 
   /** Sets its string accumulator to its character buffer. */
   protected void setStringToBuilder() {
-    this.string = getBuilder().toString();
+    this.string = getToken().toString();
   }
 
   /** Returns the top integer accumulator. */
@@ -564,6 +978,72 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
     this.acc[0] = integer;
   }
 
+  /** Returns the exceptions it has recovered from, in order. */
+  public List<EDENRuntimeException> getDiagnostics() {
+    return this.diagnostics != null
+      ? this.diagnostics
+      : Collections.emptyList();
+  }
+
+  /** Adds the given exception to its diagnostics. */
+  protected void addDiagnostic(EDENRuntimeException exception) {
+    if (this.diagnostics == null) {
+      this.diagnostics = new ArrayList<>();
+    }
+    this.diagnostics.add(exception);
+  }
+
+  /**
+   * Returns whether it skips malformed statements to collect their exceptions
+   * instead of dying on the first.
+   */
+  public boolean isRecovering() {
+    return this.recovering;
+  }
+
+  /**
+   * Sets whether it skips malformed statements to collect their exceptions
+   * instead of dying on the first.
+   */
+  public void setRecovering(boolean recovering) {
+    this.recovering = recovering;
+  }
+
+  /** Returns its pool of canonical argument strings, null if none. */
+  public StringPool getStringPool() {
+    return this.pool;
+  }
+
+  /**
+   * Sets its pool of canonical argument strings, or null to not pool. File
+   * types, track types, flags, and CD-Text arguments are pooled.
+   */
+  public void setStringPool(StringPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Returns the number of tracks it parses before it finishes, or NUL_INT if
+   * it parses them all.
+   */
+  public int getTrackLimit() {
+    return this.trackLimit;
+  }
+
+  /**
+   * Sets the number of tracks it parses before it finishes at the next TRACK
+   * statement and closes its reader, or NUL_INT to parse them all. With zero,
+   * it parses only the session header.
+   */
+  public void setTrackLimit(int trackLimit) {
+    this.trackLimit = trackLimit;
+  }
+
+  /** Returns its line ending counts. */
+  protected LineEndingTally getTally() {
+    return this.tally;
+  }
+
   /** Returns its line count. */
   protected long getLineCount() {
     return this.lineCount;
@@ -579,11 +1059,6 @@ public class CueSheetParser implements Closeable, Dieable, Nullifiable {
     setLineCount(Math.min(Long.MAX_VALUE, getLineCount() + 1));
   }
 
-  /** Returns whether its FILE arguments are set. */
-  protected boolean hasFile() {
-    return getFilePath() != null && getFileType() != null;
-  }
-
   /** Returns whether its reader has reached the end-of-file. */
   protected boolean isEof() {
     return this.eof;
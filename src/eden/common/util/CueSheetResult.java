@@ -0,0 +1,91 @@
+package eden.common.util;
+
+import eden.common.model.cd.CueSheet;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * The outcome of parsing a cuesheet file: either its cuesheet, or the
+ * exception that stopped its parser.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheets#parseAll(Path)
+ */
+public class CueSheetResult {
+
+  /** Parsed file. */
+  protected final Path path;
+  /** Resulting cuesheet, null on failure. */
+  protected final CueSheet sheet;
+  /** Exception defining the failure, null on success. */
+  protected final Exception exception;
+
+  /** Makes a successful instance with the given path and cuesheet. */
+  public CueSheetResult(Path path, CueSheet sheet) {
+    this(path, Objects.requireNonNull(sheet, "sheet"), null);
+  }
+
+  /** Makes a failed instance with the given path and exception. */
+  public CueSheetResult(Path path, Exception exception) {
+    this(path, null, Objects.requireNonNull(exception, "exception"));
+  }
+
+  /** Makes an instance with the given path, cuesheet, and exception. */
+  protected CueSheetResult(Path path, CueSheet sheet, Exception exception) {
+    this.path = path;
+    this.sheet = sheet;
+    this.exception = exception;
+  }
+
+  /** Returns its parsed file. */
+  public Path getPath() {
+    return this.path;
+  }
+
+  /** Returns its resulting cuesheet, null on failure. */
+  public CueSheet getSheet() {
+    return this.sheet;
+  }
+
+  /** Returns the exception defining its failure, null on success. */
+  public Exception getException() {
+    return this.exception;
+  }
+
+  /** Returns whether the parse succeeded. */
+  public boolean isSuccess() {
+    return getException() == null;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(Object object) {
+    return (
+      object == this ||
+      (
+        object != null &&
+        object.getClass() == getClass() &&
+        equals((CueSheetResult) object)
+      )
+    );
+  }
+
+  /** Returns whether the given instance is equal to it. */
+  protected boolean equals(CueSheetResult instance) {
+    return instance.hashCode() == hashCode();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.exception, this.path, this.sheet);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return isSuccess()
+      ? getPath().toString()
+      : getPath() + ": " + getException().getMessage();
+  }
+}
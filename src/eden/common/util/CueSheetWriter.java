@@ -0,0 +1,296 @@
+package eden.common.util;
+
+import static eden.common.model.cd.CDLayoutObject.CATALOG;
+import static eden.common.model.cd.CDLayoutObject.CDTEXTFILE;
+import static eden.common.model.cd.CDLayoutObject.FILE;
+import static eden.common.model.cd.CDLayoutObject.FLAGS;
+import static eden.common.model.cd.CDLayoutObject.INDENT;
+import static eden.common.model.cd.CDLayoutObject.INDENT_2;
+import static eden.common.model.cd.CDLayoutObject.INDEX;
+import static eden.common.model.cd.CDLayoutObject.ISRC;
+import static eden.common.model.cd.CDLayoutObject.PERFORMER;
+import static eden.common.model.cd.CDLayoutObject.POSTGAP;
+import static eden.common.model.cd.CDLayoutObject.PREGAP;
+import static eden.common.model.cd.CDLayoutObject.REM;
+import static eden.common.model.cd.CDLayoutObject.SONGWRITER;
+import static eden.common.model.cd.CDLayoutObject.TITLE;
+import static eden.common.model.cd.CDLayoutObject.TRACK;
+import static eden.common.shared.Constants.EOL;
+import static eden.common.shared.Constants.NUL_STRING;
+
+import eden.common.model.cd.CDLayoutObject;
+import eden.common.model.cd.CueSheet;
+import eden.common.model.cd.Index;
+import eden.common.model.cd.Session;
+import eden.common.model.cd.Track;
+import eden.common.model.plaintext.LineEnding;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Writes cuesheets statement by statement to an appendable, without building
+ * their statement lists nor their strings. Its output is identical to that of
+ * {@link CDLayoutObject#toString(String)}, but an exception midway leaves the
+ * statements written before it.
+ *
+ * @author Brendon
+ * @see eden.common.model.cd.CueSheetStatement
+ */
+public class CueSheetWriter {
+
+  /** Appendable to write to. */
+  protected Appendable appendable;
+  /** Line ending. */
+  protected String lineEnding;
+
+  /** Makes an instance with the given appendable and the system line ending. */
+  public CueSheetWriter(Appendable appendable) {
+    this(appendable, EOL);
+  }
+
+  /** Makes an instance with the given appendable and line ending. */
+  public CueSheetWriter(Appendable appendable, LineEnding lineEnding) {
+    this(appendable, lineEnding.toString());
+  }
+
+  /**
+   * Makes an instance with the given appendable and line ending. Passing null
+   * line ending uses the system line ending.
+   */
+  public CueSheetWriter(Appendable appendable, String lineEnding) {
+    this.appendable = Objects.requireNonNull(appendable, "appendable");
+    this.lineEnding = lineEnding != null ? lineEnding : System.lineSeparator();
+  }
+
+  /**
+   * Writes the session of the given cuesheet with the line ending of its file
+   * if set, its own line ending otherwise.
+   */
+  public void write(CueSheet sheet) throws IOException {
+    if (sheet.hasFile() && sheet.getFile().hasLineEnding()) {
+      String lineEndingg = getLineEnding();
+      this.lineEnding = sheet.getFile().getLineEnding().toString();
+      try {
+        write(sheet.getSession());
+      } finally {
+        this.lineEnding = lineEndingg;
+      }
+    } else {
+      write(sheet.getSession());
+    }
+  }
+
+  /** Writes the given session and its tracks. */
+  public void write(Session session) throws IOException {
+    if (session.hasRems()) {
+      for (String rem : session.getRems()) {
+        writeStatement(NUL_STRING, REM, rem);
+      }
+    }
+    if (session.hasCatalog()) {
+      writeStatement(NUL_STRING, CATALOG, session.getCatalog());
+    }
+    if (session.hasCdTextFile()) {
+      writeQuoted(NUL_STRING, CDTEXTFILE, session.getCdTextFile());
+    }
+    if (session.hasPerformer()) {
+      writeQuoted(NUL_STRING, PERFORMER, session.getPerformer());
+    }
+    if (session.hasSongwriter()) {
+      writeQuoted(NUL_STRING, SONGWRITER, session.getSongwriter());
+    }
+    if (session.hasTitle()) {
+      writeQuoted(NUL_STRING, TITLE, session.getTitle());
+    }
+    writeCustoms(session);
+    for (Track track : session.getTracks()) {
+      write(track);
+    }
+  }
+
+  /** Writes the given track and its indexes. */
+  public void write(Track track) throws IOException {
+    if (track.hasIndexes() && track.getIndex(0).hasFilePath()) {
+      writeFile(track.getIndex(0));
+    }
+    begin(INDENT, TRACK);
+    appendSpace();
+    append2Digits(track.getNumber());
+    appendArgument(track.getType());
+    end();
+    if (track.hasFlags()) {
+      begin(INDENT_2, FLAGS);
+      appendSpace();
+      boolean first = true;
+      for (String flag : track.getFlags()) {
+        if (!first) {
+          appendSpace();
+        }
+        this.appendable.append(flag);
+        first = false;
+      }
+      end();
+    }
+    if (track.hasRems()) {
+      for (String rem : track.getRems()) {
+        writeStatement(INDENT_2, REM, rem);
+      }
+    }
+    if (track.hasIsrc()) {
+      writeStatement(INDENT_2, ISRC, track.getIsrc());
+    }
+    if (track.hasTitle()) {
+      writeQuoted(INDENT_2, TITLE, track.getTitle());
+    }
+    if (track.hasPerformer()) {
+      writeQuoted(INDENT_2, PERFORMER, track.getPerformer());
+    }
+    if (track.hasSongwriter()) {
+      writeQuoted(INDENT_2, SONGWRITER, track.getSongwriter());
+    }
+    writeCustoms(track);
+    if (track.hasPregap()) {
+      writeTimeCode(PREGAP, track.getPregap());
+    }
+    for (int i = 0; i < track.getIndexes().size(); i++) {
+      if (i > 0 && track.getIndex(i).hasFilePath()) {
+        writeFile(track.getIndex(i));
+      }
+      write(track.getIndex(i));
+    }
+    if (track.hasPostgap()) {
+      writeTimeCode(POSTGAP, track.getPostgap());
+    }
+  }
+
+  /** Writes the given index, excluding its FILE statement. */
+  public void write(Index index) throws IOException {
+    Numbers.requireNonNegative(index.getFrame());
+    begin(INDENT_2, INDEX);
+    appendSpace();
+    append2Digits(index.getNumber());
+    appendSpace();
+    CDDAFrame.toTimeCode(index.getFrame(), this.appendable);
+    end();
+    if (index.hasRems()) {
+      for (String rem : index.getRems()) {
+        writeStatement(INDENT_2, REM, rem);
+      }
+    }
+    writeCustoms(index);
+  }
+
+  /** Returns its appendable. */
+  public Appendable getAppendable() {
+    return this.appendable;
+  }
+
+  /** Returns its line ending. */
+  public String getLineEnding() {
+    return this.lineEnding;
+  }
+
+  /** Writes the FILE statement of the given index. */
+  protected void writeFile(Index index) throws IOException {
+    begin(NUL_STRING, FILE);
+    appendQuoted(index.getFilePath());
+    appendArgument(index.getFileType());
+    end();
+  }
+
+  /** Writes the custom statements of the given layout object. */
+  protected void writeCustoms(CDLayoutObject object) throws IOException {
+    try {
+      object.forEachCustom((command, argument) -> {
+        try {
+          begin(NUL_STRING, command);
+          appendArgument(argument);
+          end();
+        } catch (IOException exception) {
+          throw new UncheckedIOException(exception);
+        }
+        return argument;
+      });
+    } catch (UncheckedIOException exception) {
+      throw exception.getCause();
+    }
+  }
+
+  /** Writes a statement of the given indentation, command, and argument. */
+  protected void writeStatement(String indent, String command, String argument)
+    throws IOException {
+    begin(indent, command);
+    appendArgument(argument);
+    end();
+  }
+
+  /**
+   * Writes a statement of the given indentation, command, and argument
+   * enclosed in quotation marks.
+   */
+  protected void writeQuoted(String indent, String command, String argument)
+    throws IOException {
+    begin(indent, command);
+    appendQuoted(argument);
+    end();
+  }
+
+  /** Writes a statement of the given command and time code argument. */
+  protected void writeTimeCode(String command, int frame) throws IOException {
+    Numbers.requireNonNegative(frame);
+    begin(INDENT_2, command);
+    appendSpace();
+    CDDAFrame.toTimeCode(frame, this.appendable);
+    end();
+  }
+
+  /** Begins a statement with the given indentation and command. */
+  protected void begin(String indent, String command) throws IOException {
+    if (command != null) {
+      this.appendable.append(indent).append(command);
+    }
+  }
+
+  /** Ends a statement. */
+  protected void end() throws IOException {
+    this.appendable.append(this.lineEnding);
+  }
+
+  /** Appends a delimiter. */
+  protected void appendSpace() throws IOException {
+    this.appendable.append(' ');
+  }
+
+  /** Appends the given argument after a delimiter, nothing if null. */
+  protected void appendArgument(String argument) throws IOException {
+    appendSpace();
+    if (argument != null) {
+      this.appendable.append(argument);
+    }
+  }
+
+  /**
+   * Appends the given argument enclosed in quotation marks, if absent, after a
+   * delimiter.
+   *
+   * @see eden.common.util.CueSheets#ensureQuote(String)
+   */
+  protected void appendQuoted(String argument) throws IOException {
+    appendSpace();
+    if (CueSheets.isEnclosed(argument)) {
+      this.appendable.append(argument);
+    } else {
+      this.appendable.append('\"').append(argument).append('\"');
+    }
+  }
+
+  /** Appends the given number of at least two digits. */
+  protected void append2Digits(int number) throws IOException {
+    if (number < 0) {
+      this.appendable.append(Numbers.toString2Digits(number));
+    } else {
+      CDDAFrame.append2Digits(number, this.appendable);
+    }
+  }
+}
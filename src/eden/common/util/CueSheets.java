@@ -18,15 +18,50 @@ import eden.common.model.cd.CueSheet;
 import eden.common.model.cd.Index;
 import eden.common.model.cd.Session;
 import eden.common.model.cd.Track;
+import eden.common.model.plaintext.PlainText;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility methods for operating on cuesheets.
@@ -36,6 +71,9 @@ import java.util.regex.Pattern;
  */
 public class CueSheets {
 
+  /** File name extension of cuesheets. */
+  public static final String EXTENSION = ".cue";
+
   /** Pattern: International Standard Recording Code (ISRC). */
   protected static final Pattern REGEX_ISRC = Pattern.compile(
     "^\\p{Alnum}{5}\\p{Digit}{7}$"
@@ -50,6 +88,23 @@ public class CueSheets {
   protected static final Pattern REGEX_NOQUOTE = Pattern.compile(
     "^[^\"\\p{Space}]*$"
   );
+  /** Parsers reused by each thread. */
+  protected static final ThreadLocal<CueSheetParser> PARSERS =
+    ThreadLocal.withInitial(() -> {
+      CueSheetParser out = new CueSheetParser((Reader) null);
+      out.close();
+      return out;
+    });
+
+  /** Encoders reused by each thread. */
+  protected static final ThreadLocal<ChannelEncoder> ENCODERS =
+    ThreadLocal.withInitial(() ->
+      new ChannelEncoder(null, PlainText.DEFAULT_CHARSET)
+    );
+
+  /** Binary codecs reused by each thread. */
+  protected static final ThreadLocal<CueSheetCodec> CODECS =
+    ThreadLocal.withInitial(CueSheetCodec::new);
 
   /**
    * Returns whether the given string has spaces and is enclosed in double
@@ -182,44 +237,338 @@ public class CueSheets {
     return checkSyntax(track, null);
   }
 
+  /**
+   * Returns the reusable parser of the current thread, or a new one if that is
+   * still parsing. Reset it before use and close it after.
+   */
+  protected static CueSheetParser getParser() {
+    CueSheetParser out = PARSERS.get();
+    return out.isObjectDead() ? out : new CueSheetParser((Reader) null);
+  }
+
+  /**
+   * Returns whether the given string is enclosed in quotation marks without
+   * line terminators between them, as {@link #REGEX_ENCLOSE} matches.
+   */
+  protected static boolean isEnclosed(String string) {
+    int last = string.length() - 1;
+    if (last < 1 || string.charAt(0) != '"' || string.charAt(last) != '"') {
+      return false;
+    }
+    for (int i = 1; i < last; i++) {
+      switch (string.charAt(i)) {
+        case '\n':
+        case '\r':
+        case '\u0085':
+        case '\u2028':
+        case '\u2029':
+          return false;
+      }
+    }
+    return true;
+  }
+
   /** Removes a quotation mark from each end of the given string. */
   public static String ensureNoQuote(String string) {
-    return REGEX_ENCLOSE.matcher(string).matches()
+    return isEnclosed(string)
       ? string.substring(1, string.length() - 1)
       : string;
   }
 
   /** Encloses the given string in quotation marks if absent. */
   public static String ensureQuote(String string) {
-    return REGEX_ENCLOSE.matcher(string).matches()
+    return isEnclosed(string)
       ? string
       : "\"" + string + "\"";
   }
 
   /** Parses a cuesheet from the given file. */
   public static CueSheet parse(File file) throws Exception {
-    CueSheet out;
-    try (CueSheetParser parser = new CueSheetParser(file)) {
-      out = parser.parse();
-      if (parser.isObjectDead()) {
-        throw parser.getObjectDeathCause();
-      }
-    }
-    return out;
+    CueSheetParser parser = getParser();
+    parser.reset(file.toPath());
+    return parse(parser);
   }
 
   /** Parses a cuesheet from the given reader. */
   public static CueSheet parse(Reader reader) throws Exception {
+    CueSheetParser parser = getParser();
+    parser.reset(reader);
+    return parse(parser);
+  }
+
+  /**
+   * Parses the session header of a cuesheet from the given file, finishing at
+   * its first TRACK statement.
+   *
+   * @see #parseHeader(File, int)
+   */
+  public static CueSheet parseHeader(File file) throws Exception {
+    return parseHeader(file, 0);
+  }
+
+  /**
+   * Parses a cuesheet from the given file up to the given number of tracks,
+   * finishing at the next TRACK statement and closing the file without
+   * reading the rest.
+   */
+  public static CueSheet parseHeader(File file, int tracks) throws Exception {
+    if (tracks < 0) {
+      throw new IllegalArgumentException("tracks");
+    }
+    CueSheetParser parser = getParser();
+    parser.reset(file.toPath());
+    parser.setTrackLimit(tracks);
+    try {
+      return parse(parser);
+    } finally {
+      parser.setTrackLimit(NUL_INT);
+    }
+  }
+
+  /**
+   * Parses a cuesheet from the given file, skipping the lines of malformed
+   * statements, then returns what was parsed. The exceptions from those lines
+   * are added to the given list in order.
+   */
+  public static CueSheet parse(
+    File file,
+    List<? super EDENRuntimeException> diagnostics
+  ) throws Exception {
+    return parse(new CueSheetParser(file), diagnostics);
+  }
+
+  /**
+   * Parses a cuesheet from the given reader, skipping the lines of malformed
+   * statements, then returns what was parsed. The exceptions from those lines
+   * are added to the given list in order.
+   */
+  public static CueSheet parse(
+    Reader reader,
+    List<? super EDENRuntimeException> diagnostics
+  ) throws Exception {
+    return parse(new CueSheetParser(reader), diagnostics);
+  }
+
+  /**
+   * Parses every cuesheet file under the given directory on as many threads as
+   * there are processors.
+   *
+   * @see #parseAll(Path, int)
+   */
+  public static Stream<CueSheetResult> parseAll(Path root) throws IOException {
+    return parseAll(root, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Parses every cuesheet file under the given directory on the given number of
+   * threads, which also bounds the number of files open at once. The tree is
+   * walked as results are consumed, so parsing starts at once. A directory
+   * that cannot be read yields a failed result, and the walk carries on.
+   * Results are streamed in the order they complete, and at most twice as
+   * many as there are threads are held before they are consumed. Closing the
+   * stream stops the remaining parses. The stream must be closed, such as in
+   * a try-with-resources statement, unless every result is consumed, or its
+   * threads stay alive.
+   *
+   * @throws IOException If the given directory cannot be read.
+   */
+  public static Stream<CueSheetResult> parseAll(Path root, int parallelism)
+    throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism");
+    }
+    ParallelParser iterator = new ParallelParser(
+      new TreeWalker(root),
+      parallelism
+    );
+    return StreamSupport
+      .stream(
+        Spliterators.spliteratorUnknownSize(
+          iterator,
+          Spliterator.NONNULL | Spliterator.DISTINCT
+        ),
+        false
+      )
+      .onClose(iterator::close);
+  }
+
+  /**
+   * Parses a cuesheet from the given file asynchronously in the default
+   * asynchronous executor of {@code CompletableFuture}. That executor is shared
+   * and meant for computation, so callers parsing many files should pass an
+   * executor meant for blocking I/O instead.
+   *
+   * @see #parseAsync(Path, Executor)
+   */
+  public static CompletableFuture<CueSheet> parseAsync(Path path) {
+    return parseAsync(path, CompletableFuture::runAsync);
+  }
+
+  /**
+   * Parses a cuesheet from the given file asynchronously with the given
+   * executor, such as a virtual thread executor where available. The future
+   * completes exceptionally with the exception that stops its parser.
+   * Cancelling the future closes the file, stopping the parse mid-way.
+   */
+  public static CompletableFuture<CueSheet> parseAsync(
+    Path path,
+    Executor executor
+  ) {
+    CompletableFuture<CueSheet> out = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        if (out.isDone()) {
+          return;
+        }
+        try {
+          CueSheetParser parser = getParser();
+          parser.reset(path);
+          Reader reader = parser.getReader();
+          out.whenComplete((sheet, throwable) -> {
+            if (out.isCancelled()) {
+              try {
+                reader.close();
+              } catch (IOException exception) {}
+            }
+          });
+          out.complete(parse(parser));
+        } catch (Exception exception) {
+          out.completeExceptionally(exception);
+        }
+      });
+    } catch (RuntimeException exception) {
+      out.completeExceptionally(exception);
+    }
+    return out;
+  }
+
+  /**
+   * Parses a cuesheet from the given file into a result, instead of throwing
+   * the exception that stops its parser.
+   */
+  public static CueSheetResult parseResult(Path path) {
+    CueSheetParser parserr = getParser();
+    try (CueSheetParser parser = parserr) {
+      parser.reset(path);
+      CueSheet sheet = parser.parse();
+      return parser.isObjectDead()
+        ? new CueSheetResult(path, parser.getObjectDeathCause())
+        : new CueSheetResult(path, sheet);
+    } catch (IOException | RuntimeException exception) {
+      return new CueSheetResult(path, exception);
+    }
+  }
+
+  /** Parses a cuesheet from the given file for the given handler. */
+  public static void parse(File file, CueSheetHandler handler)
+    throws Exception {
+    parse(new CueSheetParser(file, handler));
+  }
+
+  /** Parses a cuesheet from the given reader for the given handler. */
+  public static void parse(Reader reader, CueSheetHandler handler)
+    throws Exception {
+    parse(new CueSheetParser(reader, handler));
+  }
+
+  /** Parses a cuesheet with the given parser, then closes it. */
+  public static CueSheet parse(CueSheetParser parser) throws Exception {
     CueSheet out;
-    try (CueSheetParser parser = new CueSheetParser(reader)) {
-      out = parser.parse();
-      if (parser.isObjectDead()) {
-        throw parser.getObjectDeathCause();
+    try (CueSheetParser parserr = parser) {
+      out = parserr.parse();
+      if (parserr.isObjectDead()) {
+        throw parserr.getObjectDeathCause();
       }
     }
     return out;
   }
 
+  /**
+   * Parses a cuesheet with the given parser, skipping the lines of malformed
+   * statements, then closes it. The exceptions from those lines are added to
+   * the given list in order.
+   */
+  public static CueSheet parse(
+    CueSheetParser parser,
+    List<? super EDENRuntimeException> diagnostics
+  ) throws Exception {
+    parser.setRecovering(true);
+    try {
+      return parse(parser);
+    } finally {
+      diagnostics.addAll(parser.getDiagnostics());
+    }
+  }
+
+  /**
+   * Parses a cuesheet from the given file mapped into memory, in the default
+   * character set.
+   *
+   * @see eden.common.util.ByteCueSheetParser
+   */
+  public static CueSheet parseMapped(File file) throws Exception {
+    return parse(new ByteCueSheetParser(file));
+  }
+
+  /**
+   * Parses a cuesheet from the given file mapped into memory, in the given
+   * ASCII-compatible character set.
+   *
+   * @see eden.common.util.ByteCueSheetParser
+   */
+  public static CueSheet parseMapped(File file, Charset charset)
+    throws Exception {
+    return parse(new ByteCueSheetParser(file, charset));
+  }
+
+  /**
+   * Parses a cuesheet from the given buffer in the character set detected from
+   * its byte order mark.
+   *
+   * @see eden.common.util.ByteCueSheetParser
+   */
+  public static CueSheet parse(ByteBuffer buffer) throws Exception {
+    return parse(new ByteCueSheetParser(buffer));
+  }
+
+  /**
+   * Parses a cuesheet from the given buffer in the given character set.
+   *
+   * @see eden.common.util.ByteCueSheetParser
+   */
+  public static CueSheet parse(ByteBuffer buffer, Charset charset)
+    throws Exception {
+    return parse(new ByteCueSheetParser(buffer, charset));
+  }
+
+  /**
+   * Parses a cuesheet from the given stream in the character set detected from
+   * its byte order mark.
+   */
+  public static CueSheet parse(InputStream stream) throws Exception {
+    return parse(CueSheetParser.open(stream));
+  }
+
+  /** Parses a cuesheet from the given stream in the given character set. */
+  public static CueSheet parse(InputStream stream, Charset charset)
+    throws Exception {
+    return parse(CueSheetParser.open(stream, charset));
+  }
+
+  /**
+   * Parses a cuesheet from the given channel in the character set detected
+   * from its byte order mark.
+   */
+  public static CueSheet parse(ReadableByteChannel channel) throws Exception {
+    return parse(Channels.newInputStream(channel));
+  }
+
+  /** Parses a cuesheet from the given channel in the given character set. */
+  public static CueSheet parse(ReadableByteChannel channel, Charset charset)
+    throws Exception {
+    return parse(Channels.newInputStream(channel), charset);
+  }
+
   /** Parses a cuesheet from the given string. */
   public static CueSheet parse(String string) throws Exception {
     try (Reader reader = new StringReader(string)) {
@@ -227,31 +576,324 @@ public class CueSheets {
     }
   }
 
-  /** Writes the given cuesheet to its file. */
+  /**
+   * Writes the given cuesheet to its file in its character set, with a byte
+   * order mark if it had one. It is encoded whole into the reusable buffer of
+   * the current thread before its file is opened, so that an unmappable
+   * character leaves the file untouched. An I/O error may still leave it
+   * partial, which {@link #writeAtomic(CueSheet)} avoids.
+   */
   public static void write(CueSheet sheet) throws IOException {
     if (!sheet.hasFile() || !sheet.getFile().hasFile()) {
       return;
     }
+    ByteBuffer bytes = encode(sheet, null).getBytes();
     try (
-      Writer writer = Files.newBufferedWriter(
-        sheet.getFile().getFile().toPath()
+      FileChannel channel = FileChannel.open(
+        sheet.getFile().getFile().toPath(),
+        StandardOpenOption.WRITE,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING
       )
     ) {
-      write(sheet, writer);
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Writes the given cuesheet to its file atomically, so that a crash leaves
+   * either its old or its new file whole.
+   *
+   * @see eden.common.util.CueSheetBatchWriter
+   */
+  public static void writeAtomic(CueSheet sheet) throws IOException {
+    try (CueSheetBatchWriter writer = new CueSheetBatchWriter(1)) {
+      writer.write(sheet);
     }
   }
 
-  /** Writes the given cuesheet with the given writer. */
+  /**
+   * Writes the given cuesheet to the given channel in the character set of its
+   * file, with a byte order mark if it had one, through the reusable encoder
+   * of the current thread.
+   */
+  public static void write(CueSheet sheet, WritableByteChannel channel)
+    throws IOException {
+    encode(sheet, channel);
+  }
+
+  /**
+   * Encodes the given cuesheet to the given channel, or into its buffer if
+   * null, and returns the reusable encoder of the current thread.
+   *
+   * @see #write(CueSheet, WritableByteChannel)
+   */
+  protected static ChannelEncoder encode(
+    CueSheet sheet,
+    WritableByteChannel channel
+  ) throws IOException {
+    PlainText file = sheet.getFile();
+    ChannelEncoder encoder = ENCODERS.get();
+    encoder.reset(
+      channel,
+      file != null && file.hasCharset()
+        ? file.getCharset()
+        : PlainText.DEFAULT_CHARSET
+    );
+    if (file != null && file.hasBom()) {
+      encoder.append(PlainText.BOM);
+    }
+    new CueSheetWriter(encoder).write(sheet);
+    encoder.flush();
+    return encoder;
+  }
+
+  /**
+   * Writes the given cuesheet with the given writer, statement by statement.
+   *
+   * @see eden.common.util.CueSheetWriter
+   */
   public static void write(CueSheet sheet, Writer writer) throws IOException {
-    if (sheet.hasFile() && sheet.getFile().hasLineEnding()) {
-      writer.write(
-        sheet.getSession().toString(sheet.getFile().getLineEnding())
-      );
-    } else {
-      writer.write(sheet.getSession().toString());
+    new CueSheetWriter(writer).write(sheet);
+  }
+
+  /**
+   * Writes the given cuesheet to the given stream in binary form.
+   *
+   * @see eden.common.util.CueSheetCodec
+   */
+  public static void writeBinary(CueSheet sheet, OutputStream stream)
+    throws IOException {
+    CODECS.get().encode(sheet, stream);
+  }
+
+  /** Reads a cuesheet in binary form from the given stream to its end. */
+  public static CueSheet readBinary(InputStream stream) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] bytes = new byte[8192];
+    int length;
+    while ((length = stream.read(bytes)) >= 0) {
+      out.write(bytes, 0, length);
     }
+    return readBinary(ByteBuffer.wrap(out.toByteArray()));
+  }
+
+  /** Reads a cuesheet in binary form from the given buffer. */
+  public static CueSheet readBinary(ByteBuffer buffer) throws IOException {
+    return CODECS.get().decode(buffer);
   }
 
   /** To prevent instantiations of this class. */
   protected CueSheets() {}
+
+  /**
+   * Iterates over the results of parsing the given files on a thread pool,
+   * keeping a bounded number of parses in flight.
+   */
+  protected static class ParallelParser
+    implements Iterator<CueSheetResult>, AutoCloseable {
+
+    /** Parses to run. */
+    protected final TreeWalker tasks;
+    /** Threads to parse on. */
+    protected final ExecutorService executor;
+    /** Parses in order of completion. */
+    protected final CompletionService<CueSheetResult> service;
+    /** Maximum number of parses in flight. */
+    protected final int capacity;
+    /** Number of parses in flight. */
+    protected int count = 0;
+
+    /** Makes an instance with the given parses and number of threads. */
+    protected ParallelParser(TreeWalker tasks, int parallelism) {
+      this.tasks = tasks;
+      this.executor =
+        Executors.newFixedThreadPool(
+          parallelism,
+          runnable -> {
+            Thread out = new Thread(runnable, "CueSheets.parseAll");
+            out.setDaemon(true);
+            return out;
+          }
+        );
+      this.service = new ExecutorCompletionService<>(this.executor);
+      this.capacity = parallelism * 2;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+      fill();
+      return this.count > 0 && !this.executor.isShutdown();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CueSheetResult next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        CueSheetResult out = this.service.take().get();
+        this.count--;
+        if (this.count == 0 && !this.tasks.hasNext()) {
+          close();
+        }
+        return out;
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new CancellationException("Interrupted.");
+      } catch (ExecutionException exception) {
+        close();
+        if (exception.getCause() instanceof Error) {
+          throw (Error) exception.getCause();
+        }
+        throw new IllegalStateException(exception.getCause());
+      }
+    }
+
+    /** Stops its threads and its walk. */
+    @Override
+    public void close() {
+      this.executor.shutdownNow();
+      this.tasks.close();
+    }
+
+    /** Submits parses until its capacity is reached or no file remains. */
+    protected void fill() {
+      while (
+        this.count < this.capacity &&
+        !this.executor.isShutdown() &&
+        this.tasks.hasNext()
+      ) {
+        this.service.submit(this.tasks.next());
+        this.count++;
+      }
+    }
+  }
+
+  /**
+   * Walks a directory tree lazily, yielding a parse of each cuesheet file it
+   * finds, and a failed result for each directory it cannot read. Symbolic
+   * links to directories are not followed.
+   */
+  protected static class TreeWalker
+    implements Iterator<Callable<CueSheetResult>>, Closeable {
+
+    /** Open directories, innermost first. */
+    protected final Deque<Path> directories = new ArrayDeque<>();
+    /** Streams of its open directories, innermost first. */
+    protected final Deque<DirectoryStream<Path>> streams = new ArrayDeque<>();
+    /** Entries left in its open directories, innermost first. */
+    protected final Deque<Iterator<Path>> entries = new ArrayDeque<>();
+    /** Next parse, null if not found yet. */
+    protected Callable<CueSheetResult> next;
+
+    /**
+     * Makes an instance that walks the given directory, or yields the given
+     * file alone if it is a cuesheet file.
+     *
+     * @throws IOException If the given directory cannot be read.
+     */
+    protected TreeWalker(Path root) throws IOException {
+      if (Files.isDirectory(root)) {
+        open(root);
+      } else if (isCueSheet(root)) {
+        this.next = () -> parseResult(root);
+      } else if (!Files.exists(root)) {
+        throw new NoSuchFileException(root.toString());
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+      Path path;
+      while (this.next == null && !this.entries.isEmpty()) {
+        try {
+          if (!this.entries.peek().hasNext()) {
+            pop();
+            continue;
+          }
+          path = this.entries.peek().next();
+        } catch (DirectoryIteratorException exception) {
+          this.next = fail(this.directories.peek(), exception.getCause());
+          pop();
+          continue;
+        }
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+          try {
+            open(path);
+          } catch (IOException exception) {
+            this.next = fail(path, exception);
+          }
+        } else if (isCueSheet(path)) {
+          Path file = path;
+          this.next = () -> parseResult(file);
+        }
+      }
+      return this.next != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Callable<CueSheetResult> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Callable<CueSheetResult> out = this.next;
+      this.next = null;
+      return out;
+    }
+
+    /** Closes its open directories, ending its walk. */
+    @Override
+    public void close() {
+      while (!this.entries.isEmpty()) {
+        pop();
+      }
+      this.next = null;
+    }
+
+    /** Returns whether the given file is a cuesheet file. */
+    protected static boolean isCueSheet(Path path) {
+      return (
+        path.getFileName() != null &&
+        path
+          .getFileName()
+          .toString()
+          .toLowerCase(Locale.ROOT)
+          .endsWith(EXTENSION) &&
+        Files.isRegularFile(path)
+      );
+    }
+
+    /** Returns a failed result of the given path and exception. */
+    protected static Callable<CueSheetResult> fail(
+      Path path,
+      IOException exception
+    ) {
+      return () -> new CueSheetResult(path, exception);
+    }
+
+    /** Opens the given directory as its innermost. */
+    protected void open(Path directory) throws IOException {
+      DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+      this.directories.push(directory);
+      this.streams.push(stream);
+      this.entries.push(stream.iterator());
+    }
+
+    /** Closes its innermost directory. */
+    protected void pop() {
+      this.directories.pop();
+      this.entries.pop();
+      try {
+        this.streams.pop().close();
+      } catch (IOException exception) {}
+    }
+  }
 }
@@ -9,6 +9,59 @@ import eden.common.excep.NumberNegativeException;
  */
 public class Numbers {
 
+  /**
+   * Parses the given characters to a decimal integer as
+   * {@code Integer.parseInt} does, without making a string for plain ASCII
+   * digits.
+   */
+  public static int parseInt(CharSequence string) {
+    return string == null
+      ? Integer.parseInt((String) null)
+      : parseInt(string, 0, string.length());
+  }
+
+  /**
+   * Parses the given range of the given characters to a decimal integer as
+   * {@code Integer.parseInt} does, without making a string for plain ASCII
+   * digits.
+   */
+  public static int parseInt(CharSequence string, int start, int end) {
+    int out = 0;
+    char character;
+    if (end - start > 0 && end - start < 10) {
+      for (int i = start; i < end; i++) {
+        character = string.charAt(i);
+        if (character < '0' || character > '9') {
+          return Integer.parseInt(string.subSequence(start, end).toString());
+        }
+        out = out * 10 + (character - '0');
+      }
+      return out;
+    }
+    return Integer.parseInt(string.subSequence(start, end).toString());
+  }
+
+  /**
+   * Parses the given span of the given array to a decimal integer as
+   * {@code Integer.parseInt} does, without making a string for plain ASCII
+   * digits.
+   */
+  public static int parseInt(char[] array, int start, int end) {
+    int out = 0;
+    char character;
+    if (end - start > 0 && end - start < 10) {
+      for (int i = start; i < end; i++) {
+        character = array[i];
+        if (character < '0' || character > '9') {
+          return Integer.parseInt(new String(array, start, end - start));
+        }
+        out = out * 10 + (character - '0');
+      }
+      return out;
+    }
+    return Integer.parseInt(new String(array, start, end - start));
+  }
+
   /** Ensures that the given byte is not negative. */
   public static byte requireNonNegative(byte number) {
     if (number < 0) {
@@ -0,0 +1,72 @@
+package eden.common.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent pool of canonical string instances, so that equal strings
+ * parsed from many cuesheets, such as file types, track types, flags, and
+ * performers, share one instance. Its capacity caps its size: once full,
+ * unpooled strings are returned as is.
+ *
+ * @author Brendon
+ * @see eden.common.util.CueSheetParser#setStringPool(StringPool)
+ */
+public class StringPool {
+
+  /** Default capacity. */
+  public static final int DEFAULT_CAPACITY = 65536;
+
+  /** Canonical instances by themselves. */
+  protected final Map<String, String> map;
+  /** Maximum number of canonical instances. */
+  protected final int capacity;
+
+  /** Makes an instance with the default capacity. */
+  public StringPool() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** Makes an instance with the given capacity. */
+  public StringPool(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity");
+    }
+    this.map = new ConcurrentHashMap<>(Math.min(capacity, DEFAULT_CAPACITY));
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the canonical instance equal to the given string, pooling it if
+   * absent and there is room. Passing null returns null.
+   */
+  public String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    String out = this.map.get(string);
+    if (out != null) {
+      return out;
+    }
+    if (this.map.size() >= this.capacity) {
+      return string;
+    }
+    out = this.map.putIfAbsent(string, string);
+    return out != null ? out : string;
+  }
+
+  /** Removes all of its canonical instances. */
+  public void clear() {
+    this.map.clear();
+  }
+
+  /** Returns its maximum number of canonical instances. */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /** Returns its number of canonical instances. */
+  public int size() {
+    return this.map.size();
+  }
+}